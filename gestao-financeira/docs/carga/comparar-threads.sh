@@ -0,0 +1,91 @@
+#!/usr/bin/env bash
+# Compara o modo padrão (threads de plataforma) com o perfil "virtual" sob carga.
+#
+# Precisa de: Java 21, Maven, hey (https://github.com/rakyll/hey), curl e o PostgreSQL do application.properties
+# no ar, com um usuário de carga já cadastrado e com algumas centenas de transações.
+# O mesmo jar (compilado com -Pjava21) sobe nos dois modos, um depois do outro, na mesma máquina e no mesmo banco.
+#
+# Uso: EMAIL=carga@teste.com SENHA=123456 docs/carga/comparar-threads.sh
+# Variáveis opcionais: CONCORRENCIAS ("50 200 1000"), DURACAO (60s), AQUECIMENTO (30s), ANO e MES do relatório.
+# O resultado (Requests/sec e p99 de cada rodada) vai para docs/carga/resultado-AAAA-MM-DD.md.
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+
+EMAIL=${EMAIL:?informe EMAIL do usuário de carga}
+SENHA=${SENHA:?informe SENHA do usuário de carga}
+CONCORRENCIAS=${CONCORRENCIAS:-"50 200 1000"}
+DURACAO=${DURACAO:-60s}
+AQUECIMENTO=${AQUECIMENTO:-30s}
+ANO=${ANO:-2025}
+MES=${MES:-1}
+URL=http://localhost:8080
+RESULTADO=docs/carga/resultado-$(date +%F).md
+
+for cmd in java mvn hey curl; do
+  command -v "$cmd" > /dev/null || { echo "Falta o comando: $cmd" >&2; exit 1; }
+done
+
+mvn -q -Pjava21 -DskipTests package
+JAR=$(ls target/gestao-financeira-*.jar | grep -v original | head -1)
+
+APP_PID=
+parar() {
+  if [ -n "$APP_PID" ]; then
+    kill "$APP_PID" 2> /dev/null || true
+    wait "$APP_PID" 2> /dev/null || true
+    APP_PID=
+  fi
+}
+trap parar EXIT
+
+subir() {
+  local perfis=$1
+  java -jar "$JAR" ${perfis:+--spring.profiles.active=$perfis} > "target/carga-${perfis:-padrao}.log" 2>&1 &
+  APP_PID=$!
+  for _ in $(seq 1 120); do
+    if curl -sf "$URL/actuator/health" > /dev/null; then
+      return
+    fi
+    sleep 1
+  done
+  echo "A aplicação não subiu; veja target/carga-${perfis:-padrao}.log" >&2
+  exit 1
+}
+
+# "Requests/sec" e a linha "99% in X secs" da saída do hey, em ms
+medir() {
+  local saida
+  saida=$(hey -z "$DURACAO" -c "$1" -H "Authorization: Bearer $TOKEN" "$2")
+  local rps p99
+  rps=$(echo "$saida" | awk '/Requests\/sec/ {printf "%.0f", $2}')
+  p99=$(echo "$saida" | awk '/ 99% in / {printf "%.1f", $3 * 1000}')
+  echo "$rps|$p99"
+}
+
+{
+  echo "# Threads virtuais x padrão — $(date +%F)"
+  echo
+  echo "Máquina: $(uname -srm), $(nproc) CPUs. $(java -version 2>&1 | head -1). Duração de cada rodada: $DURACAO."
+  echo
+  echo "| Modo | Endpoint | Concorrência | Requests/s | p99 (ms) |"
+  echo "|------|----------|--------------|------------|----------|"
+} > "$RESULTADO"
+
+for perfis in "" "virtual"; do
+  modo=${perfis:-padrao}
+  subir "$perfis"
+  TOKEN=$(curl -sf -X POST "$URL/api/auth/login" -H 'Content-Type: application/json' \
+    -d "{\"email\":\"$EMAIL\",\"senha\":\"$SENHA\"}" | sed 's/.*"token":"\([^"]*\)".*/\1/')
+  for endpoint in "/api/transacoes/pagina?tamanho=50" \
+                  "/api/relatorios/mensal?ano=$ANO&mes=$MES&incluirTransacoes=true"; do
+    hey -z "$AQUECIMENTO" -c 50 -H "Authorization: Bearer $TOKEN" "$URL$endpoint" > /dev/null
+    for c in $CONCORRENCIAS; do
+      IFS='|' read -r rps p99 <<< "$(medir "$c" "$URL$endpoint")"
+      echo "| $modo | \`${endpoint%%\?*}\` | $c | $rps | $p99 |" | tee -a "$RESULTADO"
+    done
+  done
+  parar
+done
+
+echo "Resultado em $RESULTADO"
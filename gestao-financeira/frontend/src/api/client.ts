@@ -47,8 +47,12 @@ export const categoriasApi = {
 
 export const transacoesApi = {
   listar: () => api.get<import('@/types/api').TransacaoResponse[]>(`${API_PREFIX}/transacoes`),
+  listarPagina: (cursor?: string, tamanho?: number, filtro?: import('@/types/api').TransacaoFiltro) =>
+    api.get<import('@/types/api').TransacaoPaginaResponse>(`${API_PREFIX}/transacoes/pagina`, { params: { ...filtro, cursor, tamanho } }),
   criar: (data: import('@/types/api').TransacaoRequest) =>
     api.post<import('@/types/api').TransacaoResponse>(`${API_PREFIX}/transacoes`, data),
+  criarLote: (transacoes: import('@/types/api').TransacaoRequest[]) =>
+    api.post<import('@/types/api').TransacaoLoteResponse>(`${API_PREFIX}/transacoes/lote`, { transacoes }),
   atualizar: (id: number, data: import('@/types/api').TransacaoRequest) =>
     api.put<import('@/types/api').TransacaoResponse>(`${API_PREFIX}/transacoes/${id}`, data),
   excluir: (id: number) => api.delete(`${API_PREFIX}/transacoes/${id}`),
@@ -57,6 +61,10 @@ export const transacoesApi = {
 export const relatoriosApi = {
   mensal: (ano: number, mes: number) =>
     api.get<import('@/types/api').RelatorioMensalResponse>(`${API_PREFIX}/relatorios/mensal`, { params: { ano, mes } }),
+  periodo: (anoInicio: number, mesInicio: number, anoFim: number, mesFim: number) =>
+    api.get<import('@/types/api').RelatorioPeriodoResponse>(`${API_PREFIX}/relatorios/periodo`, {
+      params: { anoInicio, mesInicio, anoFim, mesFim },
+    }),
   exportPdf: (ano: number, mes: number) =>
     api.get<Blob>(`${API_PREFIX}/relatorios/mensal/export/pdf`, { params: { ano, mes }, responseType: 'blob' }),
   exportExcel: (ano: number, mes: number) =>
@@ -48,11 +48,36 @@ export interface TransacaoResponse {
   categoriaNome: string
 }
 
+export interface TransacaoFiltro {
+  tipo?: TipoTransacao
+  categoriaId?: number
+  valorMin?: number
+  valorMax?: number
+  descricao?: string
+  dataInicio?: string
+  dataFim?: string
+}
+
+export interface TransacaoLoteResponse {
+  total: number
+  criadas: number
+  rejeitadas: number
+  itens: { indice: number; id: number | null; erro: string | null }[]
+}
+
+export interface TransacaoPaginaResponse {
+  itens: TransacaoResponse[]
+  tamanho: number
+  temMais: boolean
+  proximoCursor: string | null
+}
+
 export interface ResumoPorCategoria {
   categoriaId: number
   categoriaNome: string
   total: number
   tipo: TipoTransacao
+  quantidade: number
 }
 
 export interface RelatorioMensalResponse {
@@ -62,5 +87,25 @@ export interface RelatorioMensalResponse {
   totalSaidas: number
   saldo: number
   porCategoria: ResumoPorCategoria[]
-  transacoes: TransacaoResponse[]
+  transacoes: TransacaoResponse[] | null
+}
+
+export interface ResumoMes {
+  ano: number
+  mes: number
+  totalEntradas: number
+  totalSaidas: number
+  saldo: number
+  porCategoria: ResumoPorCategoria[]
+}
+
+export interface RelatorioPeriodoResponse {
+  anoInicio: number
+  mesInicio: number
+  anoFim: number
+  mesFim: number
+  totalEntradas: number
+  totalSaidas: number
+  saldo: number
+  meses: ResumoMes[]
 }
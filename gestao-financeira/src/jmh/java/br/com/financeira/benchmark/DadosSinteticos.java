@@ -0,0 +1,163 @@
+package br.com.financeira.benchmark;
+
+import br.com.financeira.dto.TransacaoResponse;
+import br.com.financeira.entity.Categoria;
+import br.com.financeira.entity.Transacao;
+import br.com.financeira.repository.DescricaoTransacao;
+import br.com.financeira.repository.TotalMensalPorCategoria;
+import br.com.financeira.repository.TotalPorCategoria;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Dados sintéticos e montagem dos serviços sem Spring nem banco. A semente é fixa: toda execução
+ * mede exatamente os mesmos dados.
+ */
+final class DadosSinteticos {
+
+    private static final long SEMENTE = 42L;
+    private static final String[] PALAVRAS = {
+            "mercado", "farmácia", "aluguel", "salário", "posto", "restaurante", "padaria", "academia",
+            "energia", "internet", "uber", "cinema", "livraria", "pet shop", "consulta", "transferência"
+    };
+
+    private DadosSinteticos() {
+    }
+
+    static List<TransacaoResponse> transacoes(int quantidade) {
+        return streamDeTransacoes(quantidade).collect(Collectors.toCollection(() -> new ArrayList<>(quantidade)));
+    }
+
+    /** As mesmas transações de {@link #transacoes}, geradas sob demanda (nenhuma fica retida depois de consumida). */
+    static Stream<TransacaoResponse> streamDeTransacoes(int quantidade) {
+        SplittableRandom random = new SplittableRandom(SEMENTE);
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        return IntStream.range(0, quantidade).mapToObj(i -> {
+            boolean entrada = random.nextInt(5) == 0;
+            return TransacaoResponse.builder()
+                    .id((long) i + 1)
+                    .data(inicio.plusDays(random.nextInt(365)))
+                    .valor(valor(random))
+                    .tipo(entrada ? Transacao.TipoTransacao.ENTRADA : Transacao.TipoTransacao.SAIDA)
+                    .descricao(PALAVRAS[random.nextInt(PALAVRAS.length)] + " " + random.nextInt(1000))
+                    .categoriaId((long) random.nextInt(20) + 1)
+                    .categoriaNome("Categoria " + (random.nextInt(20) + 1))
+                    .build();
+        });
+    }
+
+    /** Histórico de descrições para o índice de busca: duas palavras e um número, datas espalhadas em 5 anos. */
+    static Stream<DescricaoTransacao> descricoes(int quantidade) {
+        SplittableRandom random = new SplittableRandom(SEMENTE);
+        LocalDate inicio = LocalDate.of(2020, 1, 1);
+        return IntStream.range(0, quantidade).mapToObj(i -> new DescricaoTransacao(
+                (long) i + 1,
+                inicio.plusDays(random.nextInt(5 * 365)),
+                PALAVRAS[random.nextInt(PALAVRAS.length)] + " " + PALAVRAS[random.nextInt(PALAVRAS.length)]
+                        + " " + random.nextInt(1000)));
+    }
+
+    static List<Transacao> entidades(int quantidade) {
+        List<Categoria> categorias = new ArrayList<>();
+        for (int c = 1; c <= 20; c++) {
+            categorias.add(Categoria.builder().id((long) c).nome("Categoria " + c).build());
+        }
+        List<Transacao> lista = new ArrayList<>(quantidade);
+        for (TransacaoResponse r : transacoes(quantidade)) {
+            lista.add(Transacao.builder()
+                    .id(r.getId())
+                    .data(r.getData())
+                    .valor(r.getValor())
+                    .tipo(r.getTipo())
+                    .descricao(r.getDescricao())
+                    .categoria(categorias.get((int) (r.getCategoriaId() - 1)))
+                    .build());
+        }
+        return lista;
+    }
+
+    /** Linhas de resumos_mensais de um mês: uma por categoria e tipo. */
+    static List<TotalPorCategoria> totaisDoMes(int categorias) {
+        SplittableRandom random = new SplittableRandom(SEMENTE);
+        List<TotalPorCategoria> lista = new ArrayList<>(categorias * 2);
+        for (int c = 1; c <= categorias; c++) {
+            for (Transacao.TipoTransacao tipo : Transacao.TipoTransacao.values()) {
+                lista.add(new TotalPorCategoria((long) c, "Categoria " + c, tipo, valor(random),
+                        (long) random.nextInt(1, 200)));
+            }
+        }
+        return lista;
+    }
+
+    /** Linhas de resumos_mensais do período: uma por mês, categoria e tipo. */
+    static List<TotalMensalPorCategoria> totaisDoPeriodo(YearMonth inicio, int meses, int categorias) {
+        SplittableRandom random = new SplittableRandom(SEMENTE);
+        List<TotalMensalPorCategoria> lista = new ArrayList<>(meses * categorias * 2);
+        for (int m = 0; m < meses; m++) {
+            YearMonth ym = inicio.plusMonths(m);
+            for (int c = 1; c <= categorias; c++) {
+                for (Transacao.TipoTransacao tipo : Transacao.TipoTransacao.values()) {
+                    lista.add(new TotalMensalPorCategoria(ym.getYear(), ym.getMonthValue(), (long) c,
+                            "Categoria " + c, tipo, valor(random), (long) random.nextInt(1, 200)));
+                }
+            }
+        }
+        return lista;
+    }
+
+    private static BigDecimal valor(SplittableRandom random) {
+        return BigDecimal.valueOf(random.nextLong(100, 500_000), 2);
+    }
+
+    /**
+     * Implementação de um repositório (interface Spring Data) que só responde aos métodos em {@code respostas},
+     * sempre com o mesmo valor; qualquer outro método falha.
+     */
+    static <T> T repositorio(Class<T> tipo, Map<String, Object> respostas) {
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, args) -> {
+            if (respostas.containsKey(metodo.getName())) {
+                return respostas.get(metodo.getName());
+            }
+            return switch (metodo.getName()) {
+                case "toString" -> tipo.getSimpleName() + " sintético";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(metodo.getName());
+            };
+        }));
+    }
+
+    /** Preenche um campo que no Spring viria de {@code @Value}. */
+    static void definir(Object alvo, String campo, Object valor) {
+        try {
+            Field f = alvo.getClass().getDeclaredField(campo);
+            f.setAccessible(true);
+            f.set(alvo, valor);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Campo " + campo + " em " + alvo.getClass().getSimpleName(), e);
+        }
+    }
+
+    /** Chama o método de inicialização ({@code @PostConstruct}, sem argumentos). */
+    static void iniciar(Object alvo, String metodo) {
+        try {
+            Method m = alvo.getClass().getDeclaredMethod(metodo);
+            m.setAccessible(true);
+            m.invoke(alvo);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Método " + metodo + " em " + alvo.getClass().getSimpleName(), e);
+        }
+    }
+}
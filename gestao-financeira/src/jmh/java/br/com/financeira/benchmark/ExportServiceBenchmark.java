@@ -0,0 +1,73 @@
+package br.com.financeira.benchmark;
+
+import br.com.financeira.dto.RelatorioMensalResponse;
+import br.com.financeira.service.ExportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração de PDF (OpenPDF) e Excel (SXSSF) com {@code linhas} transações, escrevendo num stream que
+ * descarta os bytes: mede a montagem do arquivo, não disco nem rede. O Excel inclui os arquivos temporários
+ * do SXSSF, como em produção.
+ * <p>
+ * As transações são geradas sob demanda, como o cursor do banco as entrega, e o fork roda com heap de 256 MB:
+ * com 100.000 linhas a exportação precisa terminar sem OutOfMemoryError, e o {@code -prof gc} mostra que a
+ * alocação por linha ({@code gc.alloc.rate.norm} / linhas) não cresce com o tamanho do arquivo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx256m"})
+public class ExportServiceBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int linhas;
+
+    private ExportService service;
+    private RelatorioMensalResponse relatorio;
+
+    @Setup
+    public void preparar() {
+        service = new ExportService(new SimpleMeterRegistry());
+        relatorio = RelatorioMensalResponse.builder()
+                .ano(2024)
+                .mes(1)
+                .totalEntradas(new BigDecimal("15000.00"))
+                .totalSaidas(new BigDecimal("9876.54"))
+                .saldo(new BigDecimal("5123.46"))
+                .porCategoria(List.of())
+                .build();
+    }
+
+    @Benchmark
+    public void relatorioPdf() {
+        service.exportarRelatorioPdf(relatorio, DadosSinteticos.streamDeTransacoes(linhas), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void relatorioExcel() {
+        service.exportarRelatorioExcel(relatorio, DadosSinteticos.streamDeTransacoes(linhas), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void transacoesExcel() {
+        service.exportarTransacoesExcel(DadosSinteticos.streamDeTransacoes(linhas), OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.financeira.benchmark;
+
+import br.com.financeira.repository.DescricaoTransacao;
+import br.com.financeira.service.IndiceDescricoes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Busca e sugestões no índice de descrições de um usuário com {@code historico} transações. O índice é montado
+ * no setup; cada chamada mede só a consulta em memória, que deve ficar abaixo de 1 ms mesmo no histórico grande.
+ * {@code umaPalavra} casa com ~1/8 do histórico, {@code duasPalavras} intersecta dois conjuntos grandes,
+ * {@code prefixoDeVariosTermos} une os conjuntos de 11 termos ("12", "120" a "129") e {@code sugestoes} ordena
+ * os termos que começam com "p" pelo número de transações.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndiceDescricoesBenchmark {
+
+    private static final long USUARIO = 1L;
+    private static final int LIMITE = 50;
+
+    @Param({"10000", "100000", "500000"})
+    public int historico;
+
+    private IndiceDescricoes indice;
+
+    @Setup
+    public void preparar() {
+        indice = new IndiceDescricoes(historico, 60, new SimpleMeterRegistry());
+        // A primeira busca monta o índice
+        indice.buscar(USUARIO, "mercado", LIMITE, () -> DadosSinteticos.descricoes(historico));
+    }
+
+    @Benchmark
+    public List<Long> umaPalavra() {
+        return indice.buscar(USUARIO, "mercado", LIMITE, this::naoCarregar);
+    }
+
+    @Benchmark
+    public List<Long> duasPalavras() {
+        return indice.buscar(USUARIO, "posto farm", LIMITE, this::naoCarregar);
+    }
+
+    @Benchmark
+    public List<Long> prefixoDeVariosTermos() {
+        return indice.buscar(USUARIO, "12", LIMITE, this::naoCarregar);
+    }
+
+    @Benchmark
+    public List<String> sugestoes() {
+        return indice.sugerir(USUARIO, "p", 10, this::naoCarregar);
+    }
+
+    /** O índice já está em memória: recarregar aqui seria erro do benchmark. */
+    private Stream<DescricaoTransacao> naoCarregar() {
+        throw new IllegalStateException("Índice de descrições foi descartado durante o benchmark");
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.financeira.benchmark;
+
+import br.com.financeira.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emissão e verificação de JWT (HS256). {@code verificarEmCache} repete o mesmo token (caminho comum de um
+ * usuário navegando); {@code verificarAssinatura} percorre muito mais tokens distintos do que cabem no cache,
+ * então quase toda chamada confere a assinatura.
+ * <p>
+ * {@code verificarComoAntes} é a linha de base: o filtro antigo chamava {@code tokenValido} e depois
+ * {@code extrairEmail}, e cada chamada derivava a chave com {@code Keys.hmacShaKeyFor} e montava um parser
+ * novo, ou seja, duas verificações completas por requisição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final int TOKENS_DISTINTOS = 1 << 16;
+    private static final long TAMANHO_CACHE = 1024;
+
+    private static final String SEGREDO = "chave-de-benchmark-com-pelo-menos-256-bits-para-hs256-ok";
+
+    private JwtService service;
+    private String token;
+    private String[] tokens;
+    private int proximo;
+
+    @Setup
+    public void preparar() {
+        service = new JwtService(new SimpleMeterRegistry());
+        DadosSinteticos.definir(service, "secret", SEGREDO);
+        DadosSinteticos.definir(service, "expirationMs", TimeUnit.HOURS.toMillis(1));
+        DadosSinteticos.definir(service, "tamanhoCache", TAMANHO_CACHE);
+        DadosSinteticos.iniciar(service, "iniciar");
+        token = service.gerarToken("usuario@exemplo.com", 1L);
+        tokens = new String[TOKENS_DISTINTOS];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = service.gerarToken("usuario" + i + "@exemplo.com", (long) i);
+        }
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return service.gerarToken("usuario@exemplo.com", 1L);
+    }
+
+    @Benchmark
+    public Claims verificarEmCache() {
+        return service.verificar(token);
+    }
+
+    @Benchmark
+    public Claims verificarAssinatura() {
+        proximo = (proximo + 1) & (TOKENS_DISTINTOS - 1);
+        return service.verificar(tokens[proximo]);
+    }
+
+    @Benchmark
+    public String verificarComoAntes() {
+        proximo = (proximo + 1) & (TOKENS_DISTINTOS - 1);
+        String t = tokens[proximo];
+        // tokenValido(token)
+        claimsComoAntes(t);
+        // extrairEmail(token)
+        return claimsComoAntes(t).getSubject();
+    }
+
+    private static Claims claimsComoAntes(String token) {
+        SecretKey chave = Keys.hmacShaKeyFor(SEGREDO.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .verifyWith(chave)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.financeira.benchmark;
+
+import br.com.financeira.dto.RelatorioMensalResponse;
+import br.com.financeira.dto.RelatorioPeriodoResponse;
+import br.com.financeira.repository.ResumoMensalRepository;
+import br.com.financeira.repository.TransacaoRepository;
+import br.com.financeira.service.DadosAlteradosEvent;
+import br.com.financeira.service.RelatorioCache;
+import br.com.financeira.service.RelatorioService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agregação dos relatórios a partir das linhas de resumos_mensais (repositórios sintéticos, sem banco).
+ * O relatório mensal passa pelo {@link RelatorioCache}; a invalidação do mês antes de cada chamada força
+ * o cálculo, então o tempo inclui uma remoção e uma inclusão no cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RelatorioServiceBenchmark {
+
+    private static final long USUARIO = 1L;
+    private static final YearMonth INICIO = YearMonth.of(2024, 1);
+
+    /** Categorias com movimento no mês (cada uma com uma linha de entrada e uma de saída). */
+    @Param({"10", "100"})
+    public int categorias;
+
+    private RelatorioService service;
+    private RelatorioCache cache;
+    private DadosAlteradosEvent invalidacao;
+
+    @Setup
+    public void preparar() {
+        ResumoMensalRepository resumos = DadosSinteticos.repositorio(ResumoMensalRepository.class, Map.of(
+                "totaisDoMes", DadosSinteticos.totaisDoMes(categorias),
+                "totaisDoPeriodo", DadosSinteticos.totaisDoPeriodo(INICIO, 12, categorias)));
+        TransacaoRepository transacoes = DadosSinteticos.repositorio(TransacaoRepository.class, Map.of());
+        cache = new RelatorioCache(10_000, 10, new SimpleMeterRegistry());
+        service = new RelatorioService(transacoes, resumos, cache);
+        DadosSinteticos.definir(service, "maxMesesPeriodo", 120);
+        invalidacao = DadosAlteradosEvent.meses(USUARIO, INICIO);
+    }
+
+    @Benchmark
+    public RelatorioMensalResponse relatorioMensalSemCache() {
+        cache.aoAlterarDados(invalidacao);
+        return service.relatorioMensal(USUARIO, INICIO.getYear(), INICIO.getMonthValue(), false);
+    }
+
+    @Benchmark
+    public RelatorioMensalResponse relatorioMensalEmCache() {
+        return service.relatorioMensal(USUARIO, INICIO.getYear(), INICIO.getMonthValue(), false);
+    }
+
+    @Benchmark
+    public RelatorioPeriodoResponse relatorioPeriodoDozeMeses() {
+        YearMonth fim = INICIO.plusMonths(11);
+        return service.relatorioPeriodo(USUARIO, INICIO.getYear(), INICIO.getMonthValue(),
+                fim.getYear(), fim.getMonthValue());
+    }
+}
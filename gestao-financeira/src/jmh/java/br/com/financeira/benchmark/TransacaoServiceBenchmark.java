@@ -0,0 +1,52 @@
+package br.com.financeira.benchmark;
+
+import br.com.financeira.dto.TransacaoResponse;
+import br.com.financeira.entity.Transacao;
+import br.com.financeira.service.TransacaoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão entidade → {@link TransacaoResponse} ({@code toResponse}) de uma lista de transações já carregadas.
+ * O serviço é montado sem dependências: a conversão não usa repositórios.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransacaoServiceBenchmark {
+
+    @Param({"50", "500"})
+    public int transacoes;
+
+    private TransacaoService service;
+    private List<Transacao> entidades;
+
+    @Setup
+    public void preparar() {
+        service = new TransacaoService(null, null, null, null, null, null, null, null);
+        entidades = DadosSinteticos.entidades(transacoes);
+    }
+
+    @Benchmark
+    public void toResponse(Blackhole bh) {
+        for (Transacao t : entidades) {
+            bh.consume(service.toResponsePublic(t));
+        }
+    }
+}
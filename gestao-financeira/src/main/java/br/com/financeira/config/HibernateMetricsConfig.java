@@ -0,0 +1,51 @@
+package br.com.financeira.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Taxas de acerto do Hibernate no Micrometer quando {@code hibernate.generate_statistics=true} (perfil
+ * {@code cache-l2}): por região do cache de 2º nível, em {@code hibernate.second.level.cache.hit.ratio}, e do cache
+ * de consultas, em {@code hibernate.cache.query.hit.ratio}. Os contadores padrão
+ * ({@code hibernate.second.level.cache.requests}, {@code hibernate.cache.query.requests}, ...) já vêm da
+ * autoconfiguração do Spring Boot, com {@code hibernate-micrometer} no classpath.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.generate_statistics", havingValue = "true")
+public class HibernateMetricsConfig {
+
+    @Bean
+    public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        return registry -> {
+            Statistics stats = sessionFactory.getStatistics();
+            for (String regiao : stats.getSecondLevelCacheRegionNames()) {
+                Gauge.builder("hibernate.second.level.cache.hit.ratio", stats, s -> taxaDeAcerto(s, regiao))
+                        .tag("region", regiao)
+                        .description("Acertos / (acertos + faltas) desde a subida da aplicação")
+                        .register(registry);
+            }
+            Gauge.builder("hibernate.cache.query.hit.ratio", stats,
+                            s -> taxa(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()))
+                    .description("Acertos / (acertos + faltas) do cache de consultas")
+                    .register(registry);
+        };
+    }
+
+    private static double taxaDeAcerto(Statistics stats, String regiao) {
+        CacheRegionStatistics r = stats.getCacheRegionStatistics(regiao);
+        return r == null ? Double.NaN : taxa(r.getHitCount(), r.getMissCount());
+    }
+
+    private static double taxa(long acertos, long faltas) {
+        long total = acertos + faltas;
+        return total == 0 ? Double.NaN : (double) acertos / total;
+    }
+}
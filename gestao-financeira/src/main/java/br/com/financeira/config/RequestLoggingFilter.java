@@ -6,17 +6,24 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Filtro que loga no console cada requisição que chega no backend:
- * método HTTP, URI, status da resposta e tempo em ms.
- * Útil para acompanhar chamadas do frontend durante o desenvolvimento.
+ * Log das requisições em campos {@code chave=valor}, com amostragem: sempre as que terminam com erro
+ * (status 4xx/5xx ou exceção) e as lentas (acima de {@code logging.requisicoes.lenta-ms}); das demais, só a
+ * fração {@code logging.requisicoes.amostragem} (0.01 = 1%). O tempo é medido com {@code nanoTime}.
+ * <p>
+ * A escrita no console é feita pelo appender assíncrono do {@code logback-spring.xml}, que descarta em vez
+ * de bloquear se a fila encher: a requisição não espera pelo I/O do log.
  */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE)
@@ -24,21 +31,52 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(RequestLoggingFilter.class);
 
+    @Value("${logging.requisicoes.amostragem:0.01}")
+    private double amostragem;
+
+    @Value("${logging.requisicoes.lenta-ms:1000}")
+    private long lentaMs;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        long start = System.currentTimeMillis();
+        long inicio = System.nanoTime();
+        Throwable falha = null;
         try {
             filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            falha = e;
+            throw e;
         } finally {
-            long duration = System.currentTimeMillis() - start;
-            String tokenInfo = request.getHeader("Authorization") != null ? " [com token]" : " [sem token]";
-            log.info("{} {} -> {} ({} ms){}",
-                    request.getMethod(),
-                    request.getRequestURI(),
-                    response.getStatus(),
-                    duration,
-                    tokenInfo);
+            long duracaoNanos = System.nanoTime() - inicio;
+            if (log.isInfoEnabled()) {
+                registrar(request, response, duracaoNanos, falha);
+            }
+        }
+    }
+
+    private void registrar(HttpServletRequest request, HttpServletResponse response, long duracaoNanos,
+                           Throwable falha) {
+        int status = falha != null ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+        String motivo;
+        if (falha != null || status >= 400) {
+            motivo = "erro";
+        } else if (duracaoNanos >= TimeUnit.MILLISECONDS.toNanos(lentaMs)) {
+            motivo = "lenta";
+        } else if (amostragem > 0 && ThreadLocalRandom.current().nextDouble() < amostragem) {
+            motivo = "amostra";
+        } else {
+            return;
+        }
+        String duracaoMs = String.format(Locale.ROOT, "%.3f", duracaoNanos / 1_000_000.0);
+        String token = request.getHeader("Authorization") != null ? "sim" : "nao";
+        if (status >= 500) {
+            log.warn("metodo={} uri={} status={} duracao_ms={} token={} motivo={} excecao={}",
+                    request.getMethod(), request.getRequestURI(), status, duracaoMs, token, motivo,
+                    falha != null ? falha.getClass().getSimpleName() : "-");
+        } else {
+            log.info("metodo={} uri={} status={} duracao_ms={} token={} motivo={}",
+                    request.getMethod(), request.getRequestURI(), status, duracaoMs, token, motivo);
         }
     }
 }
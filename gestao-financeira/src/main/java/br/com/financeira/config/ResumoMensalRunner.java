@@ -0,0 +1,65 @@
+package br.com.financeira.config;
+
+import br.com.financeira.dto.VerificacaoResumoResponse;
+import br.com.financeira.repository.ResumoMensalRepository;
+import br.com.financeira.repository.TransacaoRepository;
+import br.com.financeira.repository.UsuarioRepository;
+import br.com.financeira.service.ResumoMensalService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Confere a tabela resumos_mensais contra as transações na subida da aplicação.
+ * <ul>
+ *   <li>Se a tabela estiver vazia e já houver transações (primeira subida com resumos), reconstrói tudo.</li>
+ *   <li>{@code --resumos.verificar=true} confere todos os usuários e loga as divergências.</li>
+ *   <li>{@code --resumos.corrigir=true} junto com o anterior regrava os resumos divergentes.</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class ResumoMensalRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumoMensalRunner.class);
+
+    private final ResumoMensalService resumoMensalService;
+    private final ResumoMensalRepository resumoMensalRepository;
+    private final TransacaoRepository transacaoRepository;
+    private final UsuarioRepository usuarioRepository;
+
+    @Value("${resumos.verificar:false}")
+    private boolean verificar;
+
+    @Value("${resumos.corrigir:false}")
+    private boolean corrigir;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean semResumos = resumoMensalRepository.count() == 0 && transacaoRepository.count() > 0;
+        if (!verificar && !semResumos) {
+            return;
+        }
+        boolean aplicar = corrigir || semResumos;
+        log.info("Verificando resumos mensais (corrigir={})", aplicar);
+        int usuarios = 0;
+        int comDivergencia = 0;
+        for (Long usuarioId : usuarioRepository.listarIds()) {
+            VerificacaoResumoResponse r = resumoMensalService.verificar(usuarioId, aplicar);
+            usuarios++;
+            if (!r.getDivergencias().isEmpty()) {
+                comDivergencia++;
+                if (!semResumos) {
+                    log.warn("Usuário {}: {} divergência(s) nos resumos mensais{}",
+                            usuarioId, r.getDivergencias().size(), r.isCorrigido() ? " (corrigido)" : "");
+                    r.getDivergencias().forEach(d -> log.warn("  {}", d));
+                }
+            }
+        }
+        log.info("Resumos mensais verificados: {} usuário(s), {} com divergência", usuarios, comDivergencia);
+    }
+}
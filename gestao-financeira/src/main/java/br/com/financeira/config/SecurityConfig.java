@@ -4,8 +4,11 @@ import br.com.financeira.security.JwtAuthenticationFilter;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -14,6 +17,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import java.io.IOException;
+import java.security.MessageDigest;
 import java.nio.charset.StandardCharsets;
 
 @Configuration
@@ -38,6 +42,29 @@ public class SecurityConfig {
         }
     }
 
+    /**
+     * {@code /actuator/prometheus} não usa o login JWT: o coletor manda {@code Authorization: Bearer <metricas.token>}
+     * (comparado em tempo constante). Sem {@code metricas.token} configurado o endpoint fica fechado (403).
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricasFilterChain(HttpSecurity http,
+                                                   @Value("${metricas.token:}") String tokenMetricas) throws Exception {
+        byte[] esperado = ("Bearer " + tokenMetricas).getBytes(StandardCharsets.UTF_8);
+        http
+                .securityMatcher("/actuator/prometheus")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth
+                        .anyRequest().access((autenticacao, contexto) -> {
+                            String header = contexto.getRequest().getHeader("Authorization");
+                            return new AuthorizationDecision(!tokenMetricas.isBlank() && header != null
+                                    && MessageDigest.isEqual(esperado, header.getBytes(StandardCharsets.UTF_8)));
+                        })
+                );
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -47,6 +74,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**", "/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
                         .anyRequest().authenticated()
                 )
                 .headers(h -> h.frameOptions(f -> f.sameOrigin()))
@@ -54,8 +82,11 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Custo (log2 das rodadas) do BCrypt. Ao aumentar, hashes antigos são regravados no próximo login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${seguranca.bcrypt.custo:10}") int custo) {
+        return new BCryptPasswordEncoder(custo);
     }
 }
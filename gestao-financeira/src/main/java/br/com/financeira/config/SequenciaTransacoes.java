@@ -0,0 +1,67 @@
+package br.com.financeira.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Adianta a sequence {@code transacoes_seq} quando ela está atrás do maior id de {@code transacoes}.
+ * <p>
+ * Bancos criados quando o id ainda era identity ganham a sequence pelo {@code ddl-auto=update} começando em 1,
+ * e os INSERTs colidiriam com os ids existentes. Roda na criação do bean, depois do schema atualizado e antes
+ * do servidor web aceitar requisições; em um banco já ajustado não altera nada. Só no PostgreSQL (no H2 do
+ * perfil dev o banco nasce vazio). Desligue com {@code transacoes.sequence.ajustar=false}.
+ */
+@Component
+@RequiredArgsConstructor
+public class SequenciaTransacoes {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenciaTransacoes.class);
+
+    /** Mesmo valor do allocationSize de Transacao.id. */
+    static final int BLOCO = 50;
+
+    // Com o otimizador pooled o nextval seguinte devolve last_value + 50 e o Hibernate usa os 50 ids até ele,
+    // então a sequence está atrás quando last_value < MAX(id). O WHERE repete a conferência no próprio banco.
+    private static final String AJUSTAR = """
+            SELECT setval('transacoes_seq', m.maximo + ?)
+            FROM (SELECT MAX(id) AS maximo FROM transacoes) m, transacoes_seq s
+            WHERE m.maximo IS NOT NULL AND s.last_value < m.maximo""";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${transacoes.sequence.ajustar:true}")
+    private boolean ajustar;
+
+    @PostConstruct
+    void iniciar() {
+        if (ajustar && postgres()) {
+            ajustar();
+        }
+    }
+
+    /** @return o novo valor da sequence, ou null se ela já estava à frente dos ids. */
+    Long ajustar() {
+        List<Long> ajustada = jdbcTemplate.queryForList(AJUSTAR, Long.class, BLOCO);
+        if (ajustada.isEmpty()) {
+            return null;
+        }
+        log.info("Sequence transacoes_seq estava atrás dos ids existentes; ajustada para {}", ajustada.get(0));
+        return ajustada.get(0);
+    }
+
+    private boolean postgres() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+}
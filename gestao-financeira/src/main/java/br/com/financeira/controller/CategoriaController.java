@@ -4,14 +4,17 @@ import br.com.financeira.dto.CategoriaRequest;
 import br.com.financeira.dto.CategoriaResponse;
 import br.com.financeira.security.UsuarioPrincipal;
 import br.com.financeira.service.CategoriaService;
+import br.com.financeira.service.VersaoDadosService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,11 +26,14 @@ import java.util.List;
 public class CategoriaController {
 
     private final CategoriaService categoriaService;
+    private final VersaoDadosService versaoDadosService;
 
     @GetMapping
     @Operation(summary = "Listar categorias do usuário")
-    public List<CategoriaResponse> listar(@AuthenticationPrincipal UsuarioPrincipal usuario) {
-        return categoriaService.listarPorUsuario(usuario.getId());
+    public ResponseEntity<List<CategoriaResponse>> listar(@AuthenticationPrincipal UsuarioPrincipal usuario,
+                                                          WebRequest webRequest) {
+        String etag = versaoDadosService.etag(usuario.getId(), "categorias");
+        return RespostaCondicional.comEtag(webRequest, etag, () -> categoriaService.listarPorUsuario(usuario.getId()));
     }
 
     @PostMapping
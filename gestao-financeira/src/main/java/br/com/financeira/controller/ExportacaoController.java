@@ -0,0 +1,78 @@
+package br.com.financeira.controller;
+
+import br.com.financeira.dto.ExportacaoRequest;
+import br.com.financeira.dto.ExportacaoResponse;
+import br.com.financeira.security.UsuarioPrincipal;
+import br.com.financeira.service.ExportacaoJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/exportacoes")
+@RequiredArgsConstructor
+@Tag(name = "Exportações", description = "Geração de PDF/Excel em segundo plano e download do arquivo")
+@SecurityRequirement(name = "bearerAuth")
+public class ExportacaoController {
+
+    private static final String EXCEL_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private final ExportacaoJobService exportacaoJobService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Pedir exportação do relatório mensal (PDF ou Excel)")
+    public ExportacaoResponse criar(@AuthenticationPrincipal UsuarioPrincipal usuario,
+                                    @Valid @RequestBody ExportacaoRequest request) {
+        return exportacaoJobService.criar(usuario.getId(), request);
+    }
+
+    @GetMapping
+    @Operation(summary = "Listar exportações do usuário")
+    public List<ExportacaoResponse> listar(@AuthenticationPrincipal UsuarioPrincipal usuario) {
+        return exportacaoJobService.listar(usuario.getId());
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Status e progresso de uma exportação")
+    public ExportacaoResponse status(@AuthenticationPrincipal UsuarioPrincipal usuario, @PathVariable String id) {
+        return exportacaoJobService.status(usuario.getId(), id);
+    }
+
+    @GetMapping("/{id}/download")
+    @Operation(summary = "Baixar o arquivo de uma exportação concluída")
+    public void download(@AuthenticationPrincipal UsuarioPrincipal usuario,
+                         @PathVariable String id,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        try (ExportacaoJobService.ArquivoExportado arquivo = exportacaoJobService.arquivo(usuario.getId(), id)) {
+            long tamanho = Files.size(arquivo.caminho());
+            response.setContentType(arquivo.formato() == ExportacaoRequest.Formato.PDF
+                    ? MediaType.APPLICATION_PDF_VALUE : EXCEL_CONTENT_TYPE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + arquivo.nome() + "\"");
+            response.setContentLengthLong(tamanho);
+            // Com o conector NIO do Tomcat o arquivo vai do disco para o socket via sendfile (sem passar pela JVM).
+            // O envio acontece depois deste método retornar; a margem de download do serviço cobre esse intervalo.
+            if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+                request.setAttribute("org.apache.tomcat.sendfile.filename", arquivo.caminho().toAbsolutePath().toString());
+                request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+                request.setAttribute("org.apache.tomcat.sendfile.end", tamanho);
+            } else {
+                Files.copy(arquivo.caminho(), response.getOutputStream());
+            }
+        }
+    }
+}
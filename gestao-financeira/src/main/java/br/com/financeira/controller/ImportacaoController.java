@@ -0,0 +1,52 @@
+package br.com.financeira.controller;
+
+import br.com.financeira.dto.ImportacaoResponse;
+import br.com.financeira.security.UsuarioPrincipal;
+import br.com.financeira.service.ImportacaoJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/importacoes")
+@RequiredArgsConstructor
+@Tag(name = "Importações", description = "Importação de extratos bancários (CSV/OFX) em segundo plano")
+@SecurityRequirement(name = "bearerAuth")
+public class ImportacaoController {
+
+    private final ImportacaoJobService importacaoJobService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Importar extrato (CSV ou OFX)",
+            description = "Linhas já importadas antes são ignoradas. Linhas sem categoria (ou com categoria desconhecida) "
+                    + "vão para categoriaId. Acompanhe o progresso em GET /api/importacoes/{id}.")
+    public ImportacaoResponse criar(@AuthenticationPrincipal UsuarioPrincipal usuario,
+                                    @RequestParam("arquivo") MultipartFile arquivo,
+                                    @RequestParam Long categoriaId,
+                                    @RequestParam(required = false) ImportacaoResponse.Formato formato,
+                                    @RequestParam(required = false) String charset) throws IOException {
+        return importacaoJobService.criar(usuario.getId(), arquivo, categoriaId, formato, charset);
+    }
+
+    @GetMapping
+    @Operation(summary = "Listar importações do usuário")
+    public List<ImportacaoResponse> listar(@AuthenticationPrincipal UsuarioPrincipal usuario) {
+        return importacaoJobService.listar(usuario.getId());
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Status e progresso de uma importação")
+    public ImportacaoResponse status(@AuthenticationPrincipal UsuarioPrincipal usuario, @PathVariable String id) {
+        return importacaoJobService.status(usuario.getId(), id);
+    }
+}
@@ -1,18 +1,27 @@
 package br.com.financeira.controller;
 
 import br.com.financeira.dto.RelatorioMensalResponse;
+import br.com.financeira.dto.RelatorioPeriodoResponse;
+import br.com.financeira.dto.VerificacaoResumoResponse;
 import br.com.financeira.security.UsuarioPrincipal;
 import br.com.financeira.service.ExportService;
 import br.com.financeira.service.RelatorioService;
+import br.com.financeira.service.ResumoMensalService;
+import br.com.financeira.service.VersaoDadosService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
 
 @RestController
 @RequestMapping("/api/relatorios")
@@ -21,43 +30,81 @@ import org.springframework.web.bind.annotation.*;
 @SecurityRequirement(name = "bearerAuth")
 public class RelatorioController {
 
+    private static final String EXCEL_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
     private final RelatorioService relatorioService;
     private final ExportService exportService;
+    private final ResumoMensalService resumoMensalService;
+    private final VersaoDadosService versaoDadosService;
 
     @GetMapping("/mensal")
-    @Operation(summary = "Relatório mensal (inclui totais e dados para gráficos)")
-    public RelatorioMensalResponse relatorioMensal(
+    @Operation(summary = "Relatório mensal (inclui totais e dados para gráficos)",
+            description = "Com incluirTransacoes=false devolve só totais e resumo por categoria, sem a lista de transações.")
+    public ResponseEntity<RelatorioMensalResponse> relatorioMensal(
             @AuthenticationPrincipal UsuarioPrincipal usuario,
             @RequestParam int ano,
-            @RequestParam int mes) {
-        return relatorioService.relatorioMensal(usuario.getId(), ano, mes);
+            @RequestParam int mes,
+            @RequestParam(defaultValue = "true") boolean incluirTransacoes,
+            WebRequest webRequest) {
+        String etag = versaoDadosService.etag(usuario.getId(),
+                "relatorio-mensal-" + ano + "-" + mes + (incluirTransacoes ? "-t" : ""));
+        return RespostaCondicional.comEtag(webRequest, etag,
+                () -> relatorioService.relatorioMensal(usuario.getId(), ano, mes, incluirTransacoes));
+    }
+
+    @GetMapping("/periodo")
+    @Operation(summary = "Relatório por período (totais mês a mês e por categoria, sem transações)")
+    public ResponseEntity<RelatorioPeriodoResponse> relatorioPeriodo(
+            @AuthenticationPrincipal UsuarioPrincipal usuario,
+            @RequestParam int anoInicio,
+            @RequestParam int mesInicio,
+            @RequestParam int anoFim,
+            @RequestParam int mesFim,
+            WebRequest webRequest) {
+        String etag = versaoDadosService.etag(usuario.getId(),
+                "relatorio-periodo-" + anoInicio + "-" + mesInicio + "-" + anoFim + "-" + mesFim);
+        return RespostaCondicional.comEtag(webRequest, etag,
+                () -> relatorioService.relatorioPeriodo(usuario.getId(), anoInicio, mesInicio, anoFim, mesFim));
     }
 
     @GetMapping(value = "/mensal/export/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
     @Operation(summary = "Exportar relatório mensal em PDF")
-    public ResponseEntity<byte[]> exportarPdf(
+    public void exportarPdf(
             @AuthenticationPrincipal UsuarioPrincipal usuario,
             @RequestParam int ano,
-            @RequestParam int mes) {
-        RelatorioMensalResponse relatorio = relatorioService.relatorioMensal(usuario.getId(), ano, mes);
-        byte[] pdf = exportService.exportarRelatorioPdf(relatorio);
+            @RequestParam int mes,
+            HttpServletResponse response) throws IOException {
+        Long usuarioId = usuario.getId();
+        RelatorioMensalResponse relatorio = relatorioService.relatorioMensal(usuarioId, ano, mes, false);
         String filename = "relatorio_" + ano + "_" + mes + ".pdf";
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(pdf);
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        OutputStream out = response.getOutputStream();
+        exportService.exportarRelatorioPdf(relatorio, relatorioService.transacoesDoMes(usuarioId, ano, mes), out);
     }
 
-    @GetMapping(value = "/mensal/export/excel", produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+    @GetMapping(value = "/mensal/export/excel", produces = EXCEL_CONTENT_TYPE)
     @Operation(summary = "Exportar relatório mensal em Excel")
-    public ResponseEntity<byte[]> exportarExcel(
+    public void exportarExcel(
             @AuthenticationPrincipal UsuarioPrincipal usuario,
             @RequestParam int ano,
-            @RequestParam int mes) {
-        RelatorioMensalResponse relatorio = relatorioService.relatorioMensal(usuario.getId(), ano, mes);
-        byte[] excel = exportService.exportarRelatorioExcel(relatorio);
+            @RequestParam int mes,
+            HttpServletResponse response) throws IOException {
+        Long usuarioId = usuario.getId();
+        RelatorioMensalResponse relatorio = relatorioService.relatorioMensal(usuarioId, ano, mes, false);
         String filename = "relatorio_" + ano + "_" + mes + ".xlsx";
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(excel);
+        response.setContentType(EXCEL_CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        OutputStream out = response.getOutputStream();
+        exportService.exportarRelatorioExcel(relatorio, relatorioService.transacoesDoMes(usuarioId, ano, mes), out);
+    }
+
+    @PostMapping("/resumos/verificar")
+    @Operation(summary = "Conferir os totais mensais gravados contra as transações",
+            description = "Lista as divergências encontradas; com corrigir=true regrava os totais do usuário.")
+    public VerificacaoResumoResponse verificarResumos(
+            @AuthenticationPrincipal UsuarioPrincipal usuario,
+            @RequestParam(defaultValue = "false") boolean corrigir) {
+        return resumoMensalService.verificar(usuario.getId(), corrigir);
     }
 }
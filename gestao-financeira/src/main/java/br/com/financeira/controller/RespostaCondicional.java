@@ -0,0 +1,34 @@
+package br.com.financeira.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * GET condicional: se o If-None-Match do cliente bate com o ETag, responde 304 sem chamar {@code corpo}.
+ * O 304 leva os mesmos ETag e Cache-Control do 200.
+ */
+final class RespostaCondicional {
+
+    private RespostaCondicional() {
+    }
+
+    // private + no-cache: o navegador guarda a resposta, mas sempre revalida com If-None-Match
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    static <T> ResponseEntity<T> comEtag(WebRequest request, String etag, Supplier<T> corpo) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CACHE_CONTROL)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CACHE_CONTROL)
+                .body(corpo.get());
+    }
+}
@@ -1,18 +1,31 @@
 package br.com.financeira.controller;
 
+import br.com.financeira.dto.OperacaoLoteResponse;
+import br.com.financeira.dto.TransacaoExclusaoLoteRequest;
+import br.com.financeira.dto.TransacaoFiltro;
+import br.com.financeira.dto.TransacaoLoteRequest;
+import br.com.financeira.dto.TransacaoLoteResponse;
+import br.com.financeira.dto.TransacaoPaginaResponse;
+import br.com.financeira.dto.TransacaoRecategorizarRequest;
 import br.com.financeira.dto.TransacaoRequest;
 import br.com.financeira.dto.TransacaoResponse;
 import br.com.financeira.security.UsuarioPrincipal;
 import br.com.financeira.service.TransacaoService;
+import br.com.financeira.service.VersaoDadosService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 
 @RestController
@@ -23,11 +36,49 @@ import java.util.List;
 public class TransacaoController {
 
     private final TransacaoService transacaoService;
+    private final VersaoDadosService versaoDadosService;
 
     @GetMapping
     @Operation(summary = "Listar transações do usuário")
-    public List<TransacaoResponse> listar(@AuthenticationPrincipal UsuarioPrincipal usuario) {
-        return transacaoService.listarPorUsuario(usuario.getId());
+    public ResponseEntity<List<TransacaoResponse>> listar(@AuthenticationPrincipal UsuarioPrincipal usuario,
+                                                          WebRequest webRequest) {
+        String etag = versaoDadosService.etag(usuario.getId(), "transacoes");
+        return RespostaCondicional.comEtag(webRequest, etag, () -> transacaoService.listarPorUsuario(usuario.getId()));
+    }
+
+    @GetMapping("/pagina")
+    @Operation(summary = "Listar transações paginadas (cursor), com filtros opcionais",
+            description = "Mais recentes primeiro. Filtros: tipo, categoriaId, valorMin, valorMax, descricao (trecho), "
+                    + "dataInicio, dataFim, ids. Para a próxima página, envie o proximoCursor recebido com os mesmos filtros.")
+    public ResponseEntity<TransacaoPaginaResponse> listarPagina(@AuthenticationPrincipal UsuarioPrincipal usuario,
+                                                                @ParameterObject TransacaoFiltro filtro,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer tamanho,
+                                                                WebRequest webRequest) {
+        String chave = (cursor != null ? cursor : "") + "|" + (tamanho != null ? tamanho : "") + "|" + filtro;
+        String etag = versaoDadosService.etag(usuario.getId(), "transacoes-pagina-"
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8)));
+        return RespostaCondicional.comEtag(webRequest, etag,
+                () -> transacaoService.listarPagina(usuario.getId(), filtro, cursor, tamanho));
+    }
+
+    @GetMapping("/busca")
+    @Operation(summary = "Buscar transações pela descrição",
+            description = "Todas as palavras precisam aparecer (cada uma como início de palavra, sem diferenciar acentos "
+                    + "e maiúsculas): \"merc extra\" acha \"Mercado Extra\". Mais recentes primeiro.")
+    public List<TransacaoResponse> buscar(@AuthenticationPrincipal UsuarioPrincipal usuario,
+                                          @RequestParam String q,
+                                          @RequestParam(required = false) Integer limite) {
+        return transacaoService.buscarPorDescricao(usuario.getId(), q, limite);
+    }
+
+    @GetMapping("/busca/sugestoes")
+    @Operation(summary = "Autocompletar palavras das descrições",
+            description = "Palavras já usadas que começam com o prefixo, das mais frequentes para as menos.")
+    public List<String> sugestoes(@AuthenticationPrincipal UsuarioPrincipal usuario,
+                                  @RequestParam String prefixo,
+                                  @RequestParam(required = false) Integer limite) {
+        return transacaoService.sugerirPalavras(usuario.getId(), prefixo, limite);
     }
 
     @PostMapping
@@ -38,6 +89,32 @@ public class TransacaoController {
         return transacaoService.criar(usuario.getId(), request);
     }
 
+    @PostMapping("/lote")
+    @Operation(summary = "Registrar várias transações",
+            description = "Cada item é validado separadamente; a resposta traz, na mesma ordem, o id criado ou o erro de cada um.")
+    public TransacaoLoteResponse criarLote(@AuthenticationPrincipal UsuarioPrincipal usuario,
+                                           @Valid @RequestBody TransacaoLoteRequest request) {
+        return transacaoService.criarLote(usuario.getId(), request.getTransacoes());
+    }
+
+    @PostMapping("/lote/recategorizar")
+    @Operation(summary = "Mover várias transações para outra categoria",
+            description = "Seleciona por ids e/ou critérios (período, categoria, tipo, valor, descrição) e altera tudo com um único UPDATE; "
+                    + "o resumo mensal é ajustado a partir de uma consulta agregada sobre o mesmo filtro.")
+    public OperacaoLoteResponse recategorizar(@AuthenticationPrincipal UsuarioPrincipal usuario,
+                                              @Valid @RequestBody TransacaoRecategorizarRequest request) {
+        return transacaoService.recategorizar(usuario.getId(), request.getFiltro(), request.getCategoriaId());
+    }
+
+    @PostMapping("/lote/excluir")
+    @Operation(summary = "Excluir várias transações",
+            description = "Seleciona por ids e/ou critérios (período, categoria, tipo, valor, descrição) e exclui tudo com um único DELETE; "
+                    + "o resumo mensal é ajustado a partir de uma consulta agregada sobre o mesmo filtro.")
+    public OperacaoLoteResponse excluirLote(@AuthenticationPrincipal UsuarioPrincipal usuario,
+                                            @Valid @RequestBody TransacaoExclusaoLoteRequest request) {
+        return transacaoService.excluirLote(usuario.getId(), request.getFiltro());
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Atualizar transação")
     public TransacaoResponse atualizar(@AuthenticationPrincipal UsuarioPrincipal usuario,
@@ -0,0 +1,29 @@
+package br.com.financeira.controller;
+
+import br.com.financeira.security.UsuarioPrincipal;
+import br.com.financeira.service.ExclusaoContaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/usuarios")
+@RequiredArgsConstructor
+@Tag(name = "Usuário", description = "Conta do usuário logado")
+@SecurityRequirement(name = "bearerAuth")
+public class UsuarioController {
+
+    private final ExclusaoContaService exclusaoContaService;
+
+    @DeleteMapping("/me")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Excluir a própria conta",
+            description = "O token deixa de valer na hora; categorias, transações e o usuário são apagados em segundo plano.")
+    public void excluirConta(@AuthenticationPrincipal UsuarioPrincipal usuario) {
+        exclusaoContaService.excluir(usuario.getId());
+    }
+}
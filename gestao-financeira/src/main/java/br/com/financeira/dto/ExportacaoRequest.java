@@ -0,0 +1,28 @@
+package br.com.financeira.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ExportacaoRequest {
+
+    @NotNull
+    private Formato formato;
+
+    @NotNull
+    @Min(1900)
+    @Max(9999)
+    private Integer ano;
+
+    @NotNull
+    @Min(1)
+    @Max(12)
+    private Integer mes;
+
+    public enum Formato {
+        PDF,
+        EXCEL
+    }
+}
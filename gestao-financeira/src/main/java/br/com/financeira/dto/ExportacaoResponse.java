@@ -0,0 +1,35 @@
+package br.com.financeira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportacaoResponse {
+
+    private String id;
+    private ExportacaoRequest.Formato formato;
+    private int ano;
+    private int mes;
+    private Status status;
+    private long linhasProcessadas;
+    private long linhasTotal;
+    private int progresso;
+    private String erro;
+    private Instant criadoEm;
+    private Instant concluidoEm;
+    private Instant expiraEm;
+
+    public enum Status {
+        NA_FILA,
+        PROCESSANDO,
+        CONCLUIDO,
+        ERRO
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.financeira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacaoResponse {
+
+    private String id;
+    private Formato formato;
+    private String nomeArquivo;
+    private Status status;
+    private long bytesLidos;
+    private long bytesTotal;
+    private int progresso;
+    private long linhasLidas;
+    private long importadas;
+    /** Linhas que já existiam (importadas antes) e foram ignoradas. */
+    private long duplicadas;
+    private long rejeitadas;
+    /** Primeiros erros por linha (ex.: "linha 12: data inválida"). */
+    private List<String> erros;
+    private String erro;
+    private Instant criadoEm;
+    private Instant concluidoEm;
+    private Instant expiraEm;
+
+    public enum Formato {
+        CSV,
+        OFX
+    }
+
+    public enum Status {
+        NA_FILA,
+        PROCESSANDO,
+        CONCLUIDO,
+        ERRO
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.financeira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperacaoLoteResponse {
+
+    /** Quantidade de transações alteradas ou excluídas. */
+    private int afetadas;
+}
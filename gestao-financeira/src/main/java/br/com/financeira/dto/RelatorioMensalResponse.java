@@ -31,5 +31,6 @@ public class RelatorioMensalResponse {
         private String categoriaNome;
         private BigDecimal total;
         private String tipo;
+        private Long quantidade;
     }
 }
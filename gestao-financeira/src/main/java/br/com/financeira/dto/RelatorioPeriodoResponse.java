@@ -0,0 +1,38 @@
+package br.com.financeira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatorioPeriodoResponse {
+
+    private int anoInicio;
+    private int mesInicio;
+    private int anoFim;
+    private int mesFim;
+    private BigDecimal totalEntradas;
+    private BigDecimal totalSaidas;
+    private BigDecimal saldo;
+    private List<ResumoMes> meses;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResumoMes {
+        private int ano;
+        private int mes;
+        private BigDecimal totalEntradas;
+        private BigDecimal totalSaidas;
+        private BigDecimal saldo;
+        private List<RelatorioMensalResponse.ResumoPorCategoria> porCategoria;
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.financeira.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class TransacaoExclusaoLoteRequest {
+
+    @NotNull
+    private TransacaoFiltro filtro;
+}
@@ -0,0 +1,36 @@
+package br.com.financeira.dto;
+
+import br.com.financeira.entity.Transacao;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Seleção de transações do usuário: uma lista de ids e/ou critérios, combinados com E. Usado na listagem
+ * filtrada (parâmetros de query) e nas operações em lote (body JSON).
+ */
+@Data
+public class TransacaoFiltro {
+
+    private List<Long> ids;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dataInicio;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dataFim;
+    private Long categoriaId;
+    private Transacao.TipoTransacao tipo;
+    private BigDecimal valorMin;
+    private BigDecimal valorMax;
+    /** Trecho da descrição (sem diferenciar maiúsculas). */
+    private String descricao;
+
+    /** True quando nada foi informado (selecionaria todas as transações do usuário). */
+    public boolean semCriterios() {
+        return (ids == null || ids.isEmpty()) && dataInicio == null && dataFim == null
+                && categoriaId == null && tipo == null && valorMin == null && valorMax == null
+                && (descricao == null || descricao.isBlank());
+    }
+}
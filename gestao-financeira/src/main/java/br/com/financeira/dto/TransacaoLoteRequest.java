@@ -0,0 +1,16 @@
+package br.com.financeira.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Itens validados um a um no serviço: um item inválido não derruba o lote.
+ */
+@Data
+public class TransacaoLoteRequest {
+
+    @NotEmpty
+    private List<TransacaoRequest> transacoes;
+}
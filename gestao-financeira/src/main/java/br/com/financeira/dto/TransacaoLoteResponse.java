@@ -0,0 +1,32 @@
+package br.com.financeira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransacaoLoteResponse {
+
+    private int total;
+    private int criadas;
+    private int rejeitadas;
+    /** Um resultado por item, na mesma ordem do pedido. */
+    private List<Item> itens;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private int indice;
+        /** Id da transação criada; null se o item foi rejeitado. */
+        private Long id;
+        private String erro;
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.financeira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransacaoPaginaResponse {
+
+    private List<TransacaoResponse> itens;
+    private int tamanho;
+    private boolean temMais;
+    private String proximoCursor;
+}
@@ -0,0 +1,15 @@
+package br.com.financeira.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class TransacaoRecategorizarRequest {
+
+    @NotNull
+    private TransacaoFiltro filtro;
+
+    /** Categoria de destino. */
+    @NotNull
+    private Long categoriaId;
+}
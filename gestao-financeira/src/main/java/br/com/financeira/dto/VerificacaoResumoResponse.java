@@ -0,0 +1,36 @@
+package br.com.financeira.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VerificacaoResumoResponse {
+
+    private Long usuarioId;
+    private int bucketsVerificados;
+    private boolean corrigido;
+    private List<Divergencia> divergencias;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Divergencia {
+        private int ano;
+        private int mes;
+        private Long categoriaId;
+        private String tipo;
+        private BigDecimal totalResumo;
+        private BigDecimal totalCalculado;
+        private long quantidadeResumo;
+        private long quantidadeCalculada;
+    }
+}
@@ -4,11 +4,16 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
+/** Com o perfil {@code cache-l2}, fica no cache de 2º nível do Hibernate (região {@code categorias}). */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categorias")
 @Table(name = "categorias", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"usuario_id", "nome"})
 })
@@ -35,7 +40,8 @@ public class Categoria {
     @JoinColumn(name = "usuario_id", nullable = false)
     private Usuario usuario;
 
-    @OneToMany(mappedBy = "categoria", cascade = CascadeType.ALL, orphanRemoval = true)
+    /** Só leitura: a exclusão das transações é feita em massa (ver CategoriaService.excluir), sem cascade. */
+    @OneToMany(mappedBy = "categoria")
     @Builder.Default
     private List<Transacao> transacoes = new ArrayList<>();
 }
@@ -0,0 +1,50 @@
+package br.com.financeira.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Total acumulado das transações de um usuário por mês, categoria e tipo.
+ * Mantido na mesma transação das escritas em {@link Transacao}; os relatórios leem daqui.
+ */
+@Entity
+@Table(name = "resumos_mensais", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"usuario_id", "ano", "mes", "categoria_id", "tipo"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumoMensal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    @Column(nullable = false)
+    private int ano;
+
+    @Column(nullable = false)
+    private int mes;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "categoria_id", nullable = false)
+    private Categoria categoria;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Transacao.TipoTransacao tipo;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal total;
+
+    @Column(nullable = false)
+    private long quantidade;
+}
@@ -12,7 +12,9 @@ import java.time.Instant;
 @Entity
 @Table(name = "transacoes", indexes = {
     @Index(columnList = "usuario_id, data"),
-    @Index(columnList = "usuario_id, tipo")
+    @Index(columnList = "usuario_id, categoria_id, data"),
+    @Index(columnList = "usuario_id, tipo, data"),
+    @Index(name = "uk_transacoes_usuario_hash", columnList = "usuario_id, hash_conteudo", unique = true)
 })
 @Getter
 @Setter
@@ -21,8 +23,13 @@ import java.time.Instant;
 @Builder
 public class Transacao {
 
+    /**
+     * Id por sequence com blocos de 50 (otimizador pooled): o Hibernate não precisa de um INSERT imediato
+     * para saber o id, então consegue agrupar os INSERTs em lotes JDBC.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transacoes_seq")
+    @SequenceGenerator(name = "transacoes_seq", sequenceName = "transacoes_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -49,6 +56,14 @@ public class Transacao {
     @JoinColumn(name = "usuario_id", nullable = false)
     private Usuario usuario;
 
+    /**
+     * SHA-256 de data, valor, descrição e ocorrência no arquivo, só para transações importadas de extrato.
+     * Usado para ignorar linhas já importadas quando o mesmo extrato é enviado de novo; único por usuário
+     * (null nas transações criadas pela API, que não entram na restrição).
+     */
+    @Column(name = "hash_conteudo", length = 64, updatable = false)
+    private String hashConteudo;
+
     @Column(name = "criado_em", nullable = false, updatable = false)
     private Instant criadoEm;
 
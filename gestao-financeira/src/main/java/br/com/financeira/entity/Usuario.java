@@ -5,12 +5,17 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+/** Com o perfil {@code cache-l2}, fica no cache de 2º nível do Hibernate (região {@code usuarios}). */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
 @Table(name = "usuarios")
 @Getter
 @Setter
@@ -41,11 +46,30 @@ public class Usuario {
     @Column(name = "criado_em", nullable = false, updatable = false)
     private Instant criadoEm;
 
-    @OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL, orphanRemoval = true)
+    /**
+     * Preenchido quando o usuário pede a exclusão da conta: o login é recusado e a exclusão é retomada na
+     * subida da aplicação se não tiver terminado. Some junto com o usuário no fim da exclusão.
+     */
+    @Column(name = "exclusao_pendente_desde")
+    private Instant exclusaoPendenteDesde;
+
+    /** Tokens emitidos antes deste instante (precisão de milissegundos) não valem mais; null = todos valem. */
+    @Column(name = "tokens_validos_desde")
+    private Instant tokensValidosDesde;
+
+    /**
+     * Incrementada na mesma transação de toda escrita em transações ou categorias do usuário (ver
+     * VersaoDadosService); base dos ETags das leituras. Null nas linhas anteriores à coluna, lido como 0.
+     */
+    @Column(name = "versao_dados")
+    private Long versaoDados;
+
+    /** Só leitura: a exclusão da conta apaga os dados em massa (ver ExclusaoContaService), sem cascade. */
+    @OneToMany(mappedBy = "usuario")
     @Builder.Default
     private List<Categoria> categorias = new ArrayList<>();
 
-    @OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "usuario")
     @Builder.Default
     private List<Transacao> transacoes = new ArrayList<>();
 
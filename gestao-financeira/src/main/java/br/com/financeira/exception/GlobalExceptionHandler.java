@@ -1,5 +1,6 @@
 package br.com.financeira.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.DateTimeException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,6 +27,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
     }
 
+    /** Data inválida montada a partir da entrada (ex.: dia 31 de um mês de 30 dias). */
+    @ExceptionHandler(DateTimeException.class)
+    public ResponseEntity<Map<String, String>> dataInvalida(DateTimeException e) {
+        return ResponseEntity.badRequest().body(Map.of("erro", "Data inválida"));
+    }
+
+    @ExceptionHandler(LimiteExcedidoException.class)
+    public ResponseEntity<Map<String, String>> limiteExcedido(LimiteExcedidoException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("erro", e.getMessage()));
+    }
+
+    @ExceptionHandler(SobrecargaException.class)
+    public ResponseEntity<Map<String, String>> sobrecarga(SobrecargaException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("erro", e.getMessage()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> validacao(MethodArgumentNotValidException e) {
         Map<String, String> erros = new HashMap<>();
@@ -0,0 +1,11 @@
+package br.com.financeira.exception;
+
+/**
+ * O usuário já atingiu o limite de operações simultâneas (responde 429).
+ */
+public class LimiteExcedidoException extends RuntimeException {
+
+    public LimiteExcedidoException(String message) {
+        super(message);
+    }
+}
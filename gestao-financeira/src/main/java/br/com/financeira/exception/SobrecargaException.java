@@ -0,0 +1,11 @@
+package br.com.financeira.exception;
+
+/**
+ * O servidor está sem capacidade para aceitar a operação agora (fila cheia); responde 503.
+ */
+public class SobrecargaException extends RuntimeException {
+
+    public SobrecargaException(String message) {
+        super(message);
+    }
+}
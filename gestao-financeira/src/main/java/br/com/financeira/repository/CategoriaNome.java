@@ -0,0 +1,6 @@
+package br.com.financeira.repository;
+
+/**
+ * Id e nome de uma categoria, sem carregar a entidade.
+ */
+public record CategoriaNome(Long id, String nome) {}
@@ -1,13 +1,33 @@
 package br.com.financeira.repository;
 
 import br.com.financeira.entity.Categoria;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
 
+    /** Cacheável: com o perfil {@code cache-l2} o resultado fica no cache de consultas do Hibernate. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Categoria> findByUsuarioIdOrderByNome(Long usuarioId);
 
     boolean existsByUsuarioIdAndNome(Long usuarioId, String nome);
+
+    @Query("SELECT new br.com.financeira.repository.CategoriaNome(c.id, c.nome) FROM Categoria c WHERE c.usuario.id = :usuarioId")
+    List<CategoriaNome> nomesPorUsuario(@Param("usuarioId") Long usuarioId);
+
+    /** Dos ids informados, os que são categorias do usuário (uma consulta para o lote inteiro). */
+    @Query("SELECT c.id FROM Categoria c WHERE c.usuario.id = :usuarioId AND c.id IN :ids")
+    List<Long> idsDoUsuario(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Categoria c WHERE c.usuario.id = :usuarioId")
+    int excluirPorUsuario(@Param("usuarioId") Long usuarioId);
 }
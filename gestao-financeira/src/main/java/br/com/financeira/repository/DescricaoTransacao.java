@@ -0,0 +1,8 @@
+package br.com.financeira.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Id, data e descrição de uma transação: o mínimo para montar o índice de busca por descrição.
+ */
+public record DescricaoTransacao(Long id, LocalDate data, String descricao) {}
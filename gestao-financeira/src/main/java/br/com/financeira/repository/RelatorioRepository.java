@@ -0,0 +1,38 @@
+package br.com.financeira.repository;
+
+import br.com.financeira.entity.Transacao;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Consultas de relatório: a agregação é feita no banco (GROUP BY), sem trazer as linhas de transação.
+ */
+public interface RelatorioRepository extends Repository<Transacao, Long> {
+
+    @Query("SELECT new br.com.financeira.repository.TotalPorCategoria(" +
+           "c.id, c.nome, t.tipo, SUM(t.valor), COUNT(t)) " +
+           "FROM Transacao t JOIN t.categoria c " +
+           "WHERE t.usuario.id = :usuarioId AND t.data BETWEEN :inicio AND :fim " +
+           "GROUP BY c.id, c.nome, t.tipo " +
+           "ORDER BY c.nome, t.tipo")
+    List<TotalPorCategoria> totaisPorCategoria(
+        @Param("usuarioId") Long usuarioId,
+        @Param("inicio") LocalDate inicio,
+        @Param("fim") LocalDate fim
+    );
+
+    /**
+     * Mesma agregação por categoria/tipo, separada por mês, sobre todo o histórico do usuário.
+     * Usada para reconstruir e conferir a tabela resumos_mensais.
+     */
+    @Query("SELECT new br.com.financeira.repository.TotalMensalPorCategoria(" +
+           "YEAR(t.data), MONTH(t.data), c.id, c.nome, t.tipo, SUM(t.valor), COUNT(t)) " +
+           "FROM Transacao t JOIN t.categoria c " +
+           "WHERE t.usuario.id = :usuarioId " +
+           "GROUP BY YEAR(t.data), MONTH(t.data), c.id, c.nome, t.tipo")
+    List<TotalMensalPorCategoria> totaisMensaisPorCategoria(@Param("usuarioId") Long usuarioId);
+}
@@ -0,0 +1,58 @@
+package br.com.financeira.repository;
+
+import br.com.financeira.entity.ResumoMensal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, Long>, ResumoMensalRepositoryCustom {
+
+    @Query("SELECT new br.com.financeira.repository.TotalPorCategoria(" +
+           "c.id, c.nome, r.tipo, r.total, r.quantidade) " +
+           "FROM ResumoMensal r JOIN r.categoria c " +
+           "WHERE r.usuario.id = :usuarioId AND r.ano = :ano AND r.mes = :mes AND r.quantidade > 0 " +
+           "ORDER BY c.nome, r.tipo")
+    List<TotalPorCategoria> totaisDoMes(
+        @Param("usuarioId") Long usuarioId,
+        @Param("ano") int ano,
+        @Param("mes") int mes
+    );
+
+    @Query("SELECT new br.com.financeira.repository.TotalMensalPorCategoria(" +
+           "r.ano, r.mes, c.id, c.nome, r.tipo, r.total, r.quantidade) " +
+           "FROM ResumoMensal r JOIN r.categoria c " +
+           "WHERE r.usuario.id = :usuarioId")
+    List<TotalMensalPorCategoria> listarPorUsuario(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT new br.com.financeira.repository.TotalMensalPorCategoria(" +
+           "r.ano, r.mes, c.id, c.nome, r.tipo, r.total, r.quantidade) " +
+           "FROM ResumoMensal r JOIN r.categoria c " +
+           "WHERE r.usuario.id = :usuarioId AND r.quantidade > 0 " +
+           "AND (r.ano > :anoInicio OR (r.ano = :anoInicio AND r.mes >= :mesInicio)) " +
+           "AND (r.ano < :anoFim OR (r.ano = :anoFim AND r.mes <= :mesFim)) " +
+           "ORDER BY r.ano, r.mes, c.nome, r.tipo")
+    List<TotalMensalPorCategoria> totaisDoPeriodo(
+        @Param("usuarioId") Long usuarioId,
+        @Param("anoInicio") int anoInicio,
+        @Param("mesInicio") int mesInicio,
+        @Param("anoFim") int anoFim,
+        @Param("mesFim") int mesFim
+    );
+
+    /**
+     * Meses (ano * 100 + mes) em que a categoria tem movimento.
+     */
+    @Query("SELECT DISTINCT r.ano * 100 + r.mes FROM ResumoMensal r WHERE r.categoria.id = :categoriaId")
+    List<Integer> mesesComCategoria(@Param("categoriaId") Long categoriaId);
+
+    @Modifying
+    @Query("DELETE FROM ResumoMensal r WHERE r.usuario.id = :usuarioId")
+    int excluirPorUsuario(@Param("usuarioId") Long usuarioId);
+
+    @Modifying
+    @Query("DELETE FROM ResumoMensal r WHERE r.categoria.id = :categoriaId")
+    int excluirPorCategoria(@Param("categoriaId") Long categoriaId);
+}
@@ -0,0 +1,18 @@
+package br.com.financeira.repository;
+
+import br.com.financeira.entity.Transacao;
+
+import java.math.BigDecimal;
+
+/**
+ * Escrita atômica no bucket do resumo mensal, em SQL nativo do banco em uso.
+ */
+public interface ResumoMensalRepositoryCustom {
+
+    /**
+     * Soma valor e quantidade no bucket (usuario, ano, mes, categoria, tipo), criando-o se não existir, num
+     * único comando: duas primeiras escritas simultâneas no mesmo bucket não disputam o INSERT.
+     */
+    void somarOuCriar(Long usuarioId, int ano, int mes, Long categoriaId, Transacao.TipoTransacao tipo,
+                      BigDecimal valor, long quantidade);
+}
@@ -0,0 +1,62 @@
+package br.com.financeira.repository;
+
+import br.com.financeira.entity.ResumoMensal;
+import br.com.financeira.entity.Transacao;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.math.BigDecimal;
+
+/**
+ * Implementação de {@link ResumoMensalRepositoryCustom}, ligada ao {@link ResumoMensalRepository} pelo Spring Data.
+ * No PostgreSQL usa {@code INSERT ... ON CONFLICT DO UPDATE} sobre a chave única do bucket; no H2 (perfil dev e
+ * testes), {@code MERGE}.
+ */
+@RequiredArgsConstructor
+class ResumoMensalRepositoryImpl implements ResumoMensalRepositoryCustom {
+
+    private static final String UPSERT_POSTGRES =
+            "INSERT INTO resumos_mensais (usuario_id, ano, mes, categoria_id, tipo, total, quantidade) " +
+            "VALUES (:usuarioId, :ano, :mes, :categoriaId, :tipo, :valor, :quantidade) " +
+            "ON CONFLICT (usuario_id, ano, mes, categoria_id, tipo) DO UPDATE SET " +
+            "total = resumos_mensais.total + EXCLUDED.total, " +
+            "quantidade = resumos_mensais.quantidade + EXCLUDED.quantidade";
+
+    private static final String UPSERT_PADRAO =
+            "MERGE INTO resumos_mensais r USING (SELECT CAST(:usuarioId AS BIGINT) AS usuario_id, " +
+            "CAST(:ano AS INTEGER) AS ano, CAST(:mes AS INTEGER) AS mes, CAST(:categoriaId AS BIGINT) AS categoria_id, " +
+            "CAST(:tipo AS VARCHAR(10)) AS tipo, CAST(:valor AS NUMERIC(19, 2)) AS total, " +
+            "CAST(:quantidade AS BIGINT) AS quantidade) s " +
+            "ON r.usuario_id = s.usuario_id AND r.ano = s.ano AND r.mes = s.mes " +
+            "AND r.categoria_id = s.categoria_id AND r.tipo = s.tipo " +
+            "WHEN MATCHED THEN UPDATE SET total = r.total + s.total, quantidade = r.quantidade + s.quantidade " +
+            "WHEN NOT MATCHED THEN INSERT (usuario_id, ano, mes, categoria_id, tipo, total, quantidade) " +
+            "VALUES (s.usuario_id, s.ano, s.mes, s.categoria_id, s.tipo, s.total, s.quantidade)";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public void somarOuCriar(Long usuarioId, int ano, int mes, Long categoriaId, Transacao.TipoTransacao tipo,
+                             BigDecimal valor, long quantidade) {
+        entityManager.createNativeQuery(postgres() ? UPSERT_POSTGRES : UPSERT_PADRAO)
+                .setParameter("usuarioId", usuarioId)
+                .setParameter("ano", ano)
+                .setParameter("mes", mes)
+                .setParameter("categoriaId", categoriaId)
+                .setParameter("tipo", tipo.name())
+                .setParameter("valor", valor)
+                .setParameter("quantidade", quantidade)
+                .unwrap(NativeQuery.class)
+                // Só resumos_mensais muda: sem isso o Hibernate invalidaria todo o cache de 2º nível
+                .addSynchronizedEntityClass(ResumoMensal.class)
+                .executeUpdate();
+    }
+
+    private boolean postgres() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+}
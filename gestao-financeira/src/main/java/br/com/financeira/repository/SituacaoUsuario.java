@@ -0,0 +1,8 @@
+package br.com.financeira.repository;
+
+import java.time.Instant;
+
+/**
+ * O que o filtro JWT precisa saber da conta a cada requisição, sem carregar a entidade (e sem a senha).
+ */
+public record SituacaoUsuario(Long id, String email, Instant tokensValidosDesde, Instant exclusaoPendenteDesde) {}
@@ -0,0 +1,18 @@
+package br.com.financeira.repository;
+
+import br.com.financeira.entity.Transacao;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha agregada por mês: soma e quantidade de transações de uma categoria/tipo em (ano, mes).
+ */
+public record TotalMensalPorCategoria(
+        Integer ano,
+        Integer mes,
+        Long categoriaId,
+        String categoriaNome,
+        Transacao.TipoTransacao tipo,
+        BigDecimal total,
+        Long quantidade
+) {}
@@ -0,0 +1,16 @@
+package br.com.financeira.repository;
+
+import br.com.financeira.entity.Transacao;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha agregada de relatório: soma e quantidade de transações de uma categoria/tipo.
+ */
+public record TotalPorCategoria(
+        Long categoriaId,
+        String categoriaNome,
+        Transacao.TipoTransacao tipo,
+        BigDecimal total,
+        Long quantidade
+) {}
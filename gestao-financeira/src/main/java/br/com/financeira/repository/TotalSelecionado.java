@@ -0,0 +1,18 @@
+package br.com.financeira.repository;
+
+import br.com.financeira.entity.Transacao;
+
+import java.math.BigDecimal;
+
+/**
+ * Soma e quantidade das transações de um filtro por bucket do resumo (categoria, mês, tipo): o que uma
+ * operação em lote precisa para ajustar o resumo mensal sem carregar as linhas.
+ */
+public record TotalSelecionado(
+        Long categoriaId,
+        Integer ano,
+        Integer mes,
+        Transacao.TipoTransacao tipo,
+        BigDecimal total,
+        Long quantidade
+) {}
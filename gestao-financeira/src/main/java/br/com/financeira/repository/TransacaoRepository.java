@@ -1,33 +1,100 @@
 package br.com.financeira.repository;
 
+import br.com.financeira.dto.TransacaoResponse;
 import br.com.financeira.entity.Transacao;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface TransacaoRepository extends JpaRepository<Transacao, Long> {
+public interface TransacaoRepository extends JpaRepository<Transacao, Long>, TransacaoRepositoryCustom {
 
-    List<Transacao> findByUsuarioIdOrderByDataDesc(Long usuarioId);
+    /**
+     * Leituras para a API: montam o {@link TransacaoResponse} direto na query, com um único JOIN em
+     * categoria. Não criam entidades gerenciadas (sem lazy load por categoria e sem snapshot de dirty checking).
+     */
+    String SELECT_RESPONSE = "SELECT new br.com.financeira.dto.TransacaoResponse(" +
+            "t.id, t.data, t.valor, t.tipo, t.descricao, c.id, c.nome) " +
+            "FROM Transacao t JOIN t.categoria c ";
 
-    @Query("SELECT t FROM Transacao t WHERE t.usuario.id = :usuarioId " +
-           "AND t.data BETWEEN :inicio AND :fim ORDER BY t.data DESC")
-    List<Transacao> findByUsuarioIdAndDataBetween(
+    @Query(SELECT_RESPONSE + "WHERE t.usuario.id = :usuarioId ORDER BY t.data DESC, t.id DESC")
+    List<TransacaoResponse> listarPorUsuario(@Param("usuarioId") Long usuarioId);
+
+    @Query(SELECT_RESPONSE + "WHERE t.usuario.id = :usuarioId " +
+           "AND t.data BETWEEN :inicio AND :fim ORDER BY t.data DESC, t.id DESC")
+    List<TransacaoResponse> listarPorUsuarioEPeriodo(
         @Param("usuarioId") Long usuarioId,
         @Param("inicio") LocalDate inicio,
         @Param("fim") LocalDate fim
     );
 
-    @Query("SELECT COALESCE(SUM(t.valor), 0) FROM Transacao t " +
-           "WHERE t.usuario.id = :usuarioId AND t.tipo = :tipo " +
-           "AND t.data BETWEEN :inicio AND :fim")
-    BigDecimal somarPorUsuarioTipoEPeriodo(
+    /**
+     * Bloco de {@link #listarPorUsuarioEPeriodo} depois da posição (data, id), na mesma ordem, para exportações
+     * lidas por keyset: cada bloco é uma consulta curta pelo índice (usuario_id, data).
+     */
+    @Query(SELECT_RESPONSE + "WHERE t.usuario.id = :usuarioId AND t.data BETWEEN :inicio AND :fim " +
+           "AND (t.data < :data OR (t.data = :data AND t.id < :id)) ORDER BY t.data DESC, t.id DESC")
+    List<TransacaoResponse> blocoDoPeriodoApos(
         @Param("usuarioId") Long usuarioId,
-        @Param("tipo") Transacao.TipoTransacao tipo,
         @Param("inicio") LocalDate inicio,
-        @Param("fim") LocalDate fim
+        @Param("fim") LocalDate fim,
+        @Param("data") LocalDate data,
+        @Param("id") Long id,
+        Pageable pageable
     );
+
+    /**
+     * Paginação por keyset (data, id): a primeira página e as seguintes percorrem o índice
+     * (usuario_id, data) sem OFFSET, então o custo não cresce com a posição no histórico.
+     */
+    @Query(SELECT_RESPONSE + "WHERE t.usuario.id = :usuarioId ORDER BY t.data DESC, t.id DESC")
+    List<TransacaoResponse> primeiraPagina(@Param("usuarioId") Long usuarioId, Pageable pageable);
+
+    @Query(SELECT_RESPONSE + "WHERE t.usuario.id = :usuarioId " +
+           "AND (t.data < :data OR (t.data = :data AND t.id < :id)) " +
+           "ORDER BY t.data DESC, t.id DESC")
+    List<TransacaoResponse> paginaApos(
+        @Param("usuarioId") Long usuarioId,
+        @Param("data") LocalDate data,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    /** (id, data, descrição) de todas as transações descritas do usuário, para montar o índice de busca. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new br.com.financeira.repository.DescricaoTransacao(t.id, t.data, t.descricao) " +
+           "FROM Transacao t WHERE t.usuario.id = :usuarioId AND t.descricao IS NOT NULL")
+    Stream<DescricaoTransacao> streamDescricoes(@Param("usuarioId") Long usuarioId);
+
+    @Query(SELECT_RESPONSE + "WHERE t.usuario.id = :usuarioId AND t.id IN :ids ORDER BY t.data DESC, t.id DESC")
+    List<TransacaoResponse> listarPorIds(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids);
+
+    /** Dos hashes informados, os que já existem para o usuário (importação de extrato). */
+    @Query("SELECT t.hashConteudo FROM Transacao t WHERE t.usuario.id = :usuarioId AND t.hashConteudo IN :hashes")
+    List<String> hashesExistentes(@Param("usuarioId") Long usuarioId, @Param("hashes") Collection<String> hashes);
+
+    @Modifying
+    @Query("DELETE FROM Transacao t WHERE t.categoria.id = :categoriaId")
+    int excluirPorCategoria(@Param("categoriaId") Long categoriaId);
+
+    /** Um bloco de ids do usuário, para excluir a conta em várias transações curtas. */
+    @Query("SELECT t.id FROM Transacao t WHERE t.usuario.id = :usuarioId")
+    List<Long> idsPorUsuario(@Param("usuarioId") Long usuarioId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Transacao t WHERE t.id IN :ids")
+    int excluirPorIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Transacao t WHERE t.usuario.id = :usuarioId")
+    int excluirPorUsuario(@Param("usuarioId") Long usuarioId);
 }
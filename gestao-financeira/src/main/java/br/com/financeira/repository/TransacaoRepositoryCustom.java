@@ -0,0 +1,35 @@
+package br.com.financeira.repository;
+
+import br.com.financeira.dto.TransacaoFiltro;
+import br.com.financeira.dto.TransacaoResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Operações sobre um {@link TransacaoFiltro}: a consulta é montada conforme os critérios informados,
+ * sempre restrita ao usuário.
+ */
+public interface TransacaoRepositoryCustom {
+
+    /**
+     * Página de transações do filtro, mais recentes primeiro, por keyset: com {@code aposData}/{@code aposId}
+     * devolve só as que vêm depois dessa posição em (data DESC, id DESC).
+     */
+    List<TransacaoResponse> buscar(Long usuarioId, TransacaoFiltro filtro, LocalDate aposData, Long aposId, int limite);
+
+    /**
+     * Totais das transações do filtro por bucket do resumo, numa consulta agregada. Chamar com o usuário travado
+     * (ResumoMensalService.travarUsuario), para que o UPDATE/DELETE seguinte, sobre o mesmo filtro, alcance
+     * exatamente as linhas somadas aqui.
+     *
+     * @param excetoCategoriaId se informado, ignora as transações que já estão nessa categoria
+     */
+    List<TotalSelecionado> totaisDoFiltro(Long usuarioId, TransacaoFiltro filtro, Long excetoCategoriaId);
+
+    /** Move para a categoria, num único UPDATE, as transações do filtro que ainda não estão nela. */
+    int recategorizar(Long usuarioId, TransacaoFiltro filtro, Long categoriaId);
+
+    /** Exclui as transações do filtro num único DELETE. */
+    int excluir(Long usuarioId, TransacaoFiltro filtro);
+}
@@ -0,0 +1,119 @@
+package br.com.financeira.repository;
+
+import br.com.financeira.dto.TransacaoFiltro;
+import br.com.financeira.dto.TransacaoResponse;
+import br.com.financeira.entity.Categoria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Implementação de {@link TransacaoRepositoryCustom}, ligada ao {@link TransacaoRepository} pelo Spring Data.
+ */
+@RequiredArgsConstructor
+class TransacaoRepositoryImpl implements TransacaoRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<TransacaoResponse> buscar(Long usuarioId, TransacaoFiltro filtro, LocalDate aposData, Long aposId, int limite) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(TransacaoRepository.SELECT_RESPONSE)
+                .append(where(usuarioId, filtro, null, params));
+        if (aposData != null) {
+            jpql.append(" AND (t.data < :aposData OR (t.data = :aposData AND t.id < :aposId))");
+            params.put("aposData", aposData);
+            params.put("aposId", aposId);
+        }
+        jpql.append(" ORDER BY t.data DESC, t.id DESC");
+        var query = entityManager.createQuery(jpql.toString(), TransacaoResponse.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limite).getResultList();
+    }
+
+    @Override
+    public List<TotalSelecionado> totaisDoFiltro(Long usuarioId, TransacaoFiltro filtro, Long excetoCategoriaId) {
+        Map<String, Object> params = new HashMap<>();
+        String where = where(usuarioId, filtro, excetoCategoriaId, params);
+        var query = entityManager.createQuery(
+                "SELECT new br.com.financeira.repository.TotalSelecionado(t.categoria.id, YEAR(t.data), MONTH(t.data), " +
+                "t.tipo, SUM(t.valor), COUNT(t)) FROM Transacao t " + where +
+                " GROUP BY t.categoria.id, YEAR(t.data), MONTH(t.data), t.tipo", TotalSelecionado.class);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    @Override
+    public int recategorizar(Long usuarioId, TransacaoFiltro filtro, Long categoriaId) {
+        Map<String, Object> params = new HashMap<>();
+        String where = where(usuarioId, filtro, categoriaId, params);
+        Query query = entityManager.createQuery("UPDATE Transacao t SET t.categoria = :novaCategoria " + where);
+        params.forEach(query::setParameter);
+        query.setParameter("novaCategoria", entityManager.getReference(Categoria.class, categoriaId));
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int excluir(Long usuarioId, TransacaoFiltro filtro) {
+        Map<String, Object> params = new HashMap<>();
+        Query query = entityManager.createQuery("DELETE FROM Transacao t " + where(usuarioId, filtro, null, params));
+        params.forEach(query::setParameter);
+        return query.executeUpdate();
+    }
+
+    /**
+     * Cláusula WHERE sobre o alias {@code t}, só com os critérios informados. Usa apenas colunas de
+     * {@code transacoes} (FKs incluídas), então serve também para UPDATE e DELETE em massa.
+     * Os formatos mais comuns têm índice: (usuario_id, data), (usuario_id, categoria_id, data) e
+     * (usuario_id, tipo, data); valor e descrição filtram as linhas que esses índices já selecionaram.
+     */
+    private static String where(Long usuarioId, TransacaoFiltro filtro, Long excetoCategoriaId, Map<String, Object> params) {
+        StringBuilder jpql = new StringBuilder("WHERE t.usuario.id = :usuarioId");
+        params.put("usuarioId", usuarioId);
+        if (filtro.getIds() != null && !filtro.getIds().isEmpty()) {
+            jpql.append(" AND t.id IN :ids");
+            params.put("ids", filtro.getIds());
+        }
+        if (filtro.getDataInicio() != null) {
+            jpql.append(" AND t.data >= :dataInicio");
+            params.put("dataInicio", filtro.getDataInicio());
+        }
+        if (filtro.getDataFim() != null) {
+            jpql.append(" AND t.data <= :dataFim");
+            params.put("dataFim", filtro.getDataFim());
+        }
+        if (filtro.getCategoriaId() != null) {
+            jpql.append(" AND t.categoria.id = :categoriaId");
+            params.put("categoriaId", filtro.getCategoriaId());
+        }
+        if (filtro.getTipo() != null) {
+            jpql.append(" AND t.tipo = :tipo");
+            params.put("tipo", filtro.getTipo());
+        }
+        if (filtro.getValorMin() != null) {
+            jpql.append(" AND t.valor >= :valorMin");
+            params.put("valorMin", filtro.getValorMin());
+        }
+        if (filtro.getValorMax() != null) {
+            jpql.append(" AND t.valor <= :valorMax");
+            params.put("valorMax", filtro.getValorMax());
+        }
+        if (filtro.getDescricao() != null && !filtro.getDescricao().isBlank()) {
+            jpql.append(" AND LOWER(t.descricao) LIKE :descricao ESCAPE '!'");
+            String termo = filtro.getDescricao().trim().toLowerCase(Locale.ROOT)
+                    .replace("!", "!!").replace("%", "!%").replace("_", "!_");
+            params.put("descricao", "%" + termo + "%");
+        }
+        if (excetoCategoriaId != null) {
+            jpql.append(" AND t.categoria.id <> :excetoCategoriaId");
+            params.put("excetoCategoriaId", excetoCategoriaId);
+        }
+        return jpql.toString();
+    }
+}
@@ -1,8 +1,16 @@
 package br.com.financeira.repository;
 
 import br.com.financeira.entity.Usuario;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
@@ -10,4 +18,41 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT new br.com.financeira.repository.SituacaoUsuario(u.id, u.email, u.tokensValidosDesde, u.exclusaoPendenteDesde) "
+            + "FROM Usuario u WHERE u.id = :id")
+    Optional<SituacaoUsuario> buscarSituacao(@Param("id") Long id);
+
+    /** Carrega o usuário travando a linha até o fim da transação (SELECT ... FOR UPDATE). */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM Usuario u WHERE u.id = :id")
+    Optional<Usuario> travar(@Param("id") Long id);
+
+    @Query("SELECT COALESCE(u.versaoDados, 0L) FROM Usuario u WHERE u.id = :id")
+    Optional<Long> buscarVersaoDados(@Param("id") Long id);
+
+    @Query("SELECT u.id FROM Usuario u ORDER BY u.id")
+    List<Long> listarIds();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Usuario u SET u.senha = :senha WHERE u.id = :id")
+    int atualizarSenha(@Param("id") Long id, @Param("senha") String senha);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Usuario u SET u.exclusaoPendenteDesde = :agora WHERE u.id = :id AND u.exclusaoPendenteDesde IS NULL")
+    int marcarExclusaoPendente(@Param("id") Long id, @Param("agora") Instant agora);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Usuario u SET u.tokensValidosDesde = :instante WHERE u.id = :id")
+    int revogarTokens(@Param("id") Long id, @Param("instante") Instant instante);
+
+    /** Contas com exclusão pedida e ainda não terminada. */
+    List<Usuario> findByExclusaoPendenteDesdeIsNotNullOrderById();
+
+    @Modifying
+    @Query("DELETE FROM Usuario u WHERE u.id = :id")
+    int excluirPorId(@Param("id") Long id);
 }
@@ -1,27 +1,48 @@
 package br.com.financeira.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Autentica a requisição pelo header {@code Authorization: Bearer <token>}.
+ * <p>
+ * A conta é conferida pelo id do token ({@code userId}) em {@link RevogacaoTokens}: uma projeção pequena (sem a
+ * senha) em cache curto ({@code jwt.principal.cache-segundos}), no máximo uma consulta por usuário nesse intervalo,
+ * que confere se a conta existe, se não está sendo excluída e se o token não foi revogado. No modo padrão
+ * ({@code jwt.principal.modo=token}) e-mail e id do principal saem das claims verificadas; com
+ * {@code jwt.principal.modo=banco}, da projeção lida do banco. Tokens sem {@code userId} caem na carga completa
+ * do usuário, sem cache.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UsuarioDetailsService usuarioDetailsService;
+    private final RevogacaoTokens revogacaoTokens;
+
+    @Value("${jwt.principal.modo:token}")
+    private String modoPrincipal;
+
+    /** O coletor de métricas usa um token próprio (ver SecurityConfig), que não é JWT. */
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return request.getRequestURI().equals("/actuator/prometheus");
+    }
 
     @Override
     protected void doFilterInternal(
@@ -35,19 +56,44 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
         final String token = authHeader.substring(7);
-        if (!jwtService.tokenValido(token)) {
+        Claims claims = jwtService.verificar(token);
+        if (claims == null) {
             filterChain.doFilter(request, response);
             return;
         }
-        String email = jwtService.extrairEmail(token);
+        String email = claims.getSubject();
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-            var authToken = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities()
-            );
-            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authToken);
+            UsuarioPrincipal principal = principal(claims, email);
+            if (principal != null) {
+                var authToken = new UsernamePasswordAuthenticationToken(
+                        principal, null, principal.getAuthorities()
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
         }
         filterChain.doFilter(request, response);
     }
+
+    private UsuarioPrincipal principal(Claims claims, String email) {
+        Long usuarioId = claims.get("userId", Long.class);
+        if (usuarioId == null) {
+            return carregarDoBanco(claims, email);
+        }
+        return revogacaoTokens.situacaoSeValido(usuarioId, claims)
+                .map(situacao -> "banco".equals(modoPrincipal)
+                        ? UsuarioPrincipal.fromToken(situacao.id(), situacao.email())
+                        : UsuarioPrincipal.fromToken(usuarioId, email))
+                .orElse(null);
+    }
+
+    private UsuarioPrincipal carregarDoBanco(Claims claims, String email) {
+        UsuarioPrincipal carregado;
+        try {
+            carregado = (UsuarioPrincipal) usuarioDetailsService.loadUserByUsername(email);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+        return revogacaoTokens.revogado(carregado.getTokensValidosDesde(), claims) ? null : carregado;
+    }
 }
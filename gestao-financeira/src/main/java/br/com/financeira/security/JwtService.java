@@ -1,60 +1,154 @@
 package br.com.financeira.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
+    /** Emissão com precisão de milissegundos, para comparar com {@code tokens_validos_desde}. */
+    static final String CLAIM_EMITIDO_MS = "iatMs";
+
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration-ms}")
     private long expirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.cache.tamanho-maximo:10000}")
+    private long tamanhoCache;
+
+    // Chave e parser são imutáveis e thread-safe: montados uma vez só
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /**
+     * Tokens já verificados (assinatura e validade) -> claims. Cada entrada expira junto com o token,
+     * então um token vencido nunca é aceito pelo cache.
+     */
+    private Cache<String, Claims> verificados;
+
+    /** Tempo de {@link #verificar} por resultado: respondido pelo cache, assinatura conferida ou token recusado. */
+    private Timer tempoCache;
+    private Timer tempoValido;
+    private Timer tempoInvalido;
+
+    public JwtService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        tempoCache = tempoVerificacao("cache");
+        tempoValido = tempoVerificacao("valido");
+        tempoInvalido = tempoVerificacao("invalido");
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verificados = Caffeine.newBuilder()
+                .maximumSize(tamanhoCache)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        Date exp = claims.getExpiration();
+                        long restanteMs = exp != null ? exp.getTime() - System.currentTimeMillis() : expirationMs;
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, restanteMs));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String gerarToken(String email, Long usuarioId) {
+        long agora = System.currentTimeMillis();
         return Jwts.builder()
                 .subject(email)
                 .claim("userId", usuarioId)
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(getSigningKey())
+                .claim(CLAIM_EMITIDO_MS, agora)
+                .issuedAt(new Date(agora))
+                .expiration(new Date(agora + expirationMs))
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Instante de emissão em milissegundos. O {@code iat} padrão do JWT tem só segundos; tokens antigos, sem a
+     * claim própria, caem nele (arredondado para baixo). Null se o token não tem nenhum dos dois.
+     */
+    public static Long emitidoEmMs(Claims claims) {
+        Long ms = claims.get(CLAIM_EMITIDO_MS, Long.class);
+        if (ms != null) {
+            return ms;
+        }
+        Date iat = claims.getIssuedAt();
+        return iat != null ? iat.getTime() : null;
+    }
+
+    /**
+     * Verifica assinatura e validade uma única vez e devolve as claims, ou null se o token for inválido.
+     * Tokens já verificados são respondidos pelo cache até expirarem.
+     */
+    public Claims verificar(String token) {
+        long inicio = System.nanoTime();
+        Claims claims = verificados.getIfPresent(token);
+        if (claims != null) {
+            tempoCache.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return claims;
+        }
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            tempoInvalido.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return null;
+        }
+        verificados.put(token, claims);
+        tempoValido.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return claims;
+    }
+
+    private Timer tempoVerificacao(String resultado) {
+        return Timer.builder("seguranca.jwt.verificacao")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
     public String extrairEmail(String token) {
-        return getClaims(token).getSubject();
+        Claims claims = verificar(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     public Long extrairUsuarioId(String token) {
-        return getClaims(token).get("userId", Long.class);
+        Claims claims = verificar(token);
+        return claims != null ? claims.get("userId", Long.class) : null;
     }
 
     public boolean tokenValido(String token) {
-        try {
-            getClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private Claims getClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return verificar(token) != null;
     }
 }
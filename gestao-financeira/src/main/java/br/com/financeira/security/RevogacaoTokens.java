@@ -0,0 +1,78 @@
+package br.com.financeira.security;
+
+import br.com.financeira.repository.SituacaoUsuario;
+import br.com.financeira.repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Revogação dos tokens já emitidos de um usuário (conta excluída, por exemplo).
+ * <p>
+ * O instante fica gravado em {@code usuarios.tokens_validos_desde}, então vale depois de reiniciar e em todas as
+ * instâncias. O filtro JWT lê a situação da conta ({@link SituacaoUsuario}: id, e-mail, instantes de revogação e de
+ * exclusão, nunca a senha) por um cache curto por id: na instância que revogou vale na hora ({@link #revogar}
+ * invalida a entrada), nas demais em até {@code jwt.principal.cache-segundos}. Conta inexistente também fica no
+ * cache, para um token de conta apagada não consultar o banco a cada requisição.
+ */
+@Component
+public class RevogacaoTokens {
+
+    private final UsuarioRepository usuarioRepository;
+
+    private final Cache<Long, Optional<SituacaoUsuario>> situacoes;
+
+    public RevogacaoTokens(UsuarioRepository usuarioRepository,
+                           @Value("${jwt.principal.cache-segundos:60}") long cacheSegundos,
+                           @Value("${jwt.principal.cache-tamanho-maximo:1000}") long cacheTamanho) {
+        this.usuarioRepository = usuarioRepository;
+        this.situacoes = Caffeine.newBuilder()
+                .maximumSize(cacheTamanho)
+                .expireAfterWrite(Duration.ofSeconds(cacheSegundos))
+                .build();
+    }
+
+    /** Tokens emitidos até agora deixam de valer. */
+    public void revogar(Long usuarioId) {
+        usuarioRepository.revogarTokens(usuarioId, Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        invalidar(usuarioId);
+    }
+
+    /** Descarta a situação guardada da conta (ex.: exclusão marcada ou concluída). */
+    public void invalidar(Long usuarioId) {
+        situacoes.invalidate(usuarioId);
+    }
+
+    /**
+     * Situação da conta se ela existe, não está sendo excluída e o token não foi revogado; vazio caso contrário.
+     * A consulta roda fora do cache (getIfPresent/put em vez de get com função): o cálculo dentro do Caffeine
+     * acontece sob lock do ConcurrentHashMap e prenderia a thread portadora de uma thread virtual.
+     */
+    public Optional<SituacaoUsuario> situacaoSeValido(Long usuarioId, Claims claims) {
+        Optional<SituacaoUsuario> situacao = situacoes.getIfPresent(usuarioId);
+        if (situacao == null) {
+            situacao = usuarioRepository.buscarSituacao(usuarioId);
+            situacoes.put(usuarioId, situacao);
+        }
+        return situacao.filter(s -> s.exclusaoPendenteDesde() == null && !revogado(s.tokensValidosDesde(), claims));
+    }
+
+    /**
+     * True se o token foi emitido antes de {@code tokensValidosDesde}. A comparação é em milissegundos: um login
+     * feito logo depois da revogação, ainda no mesmo segundo, continua valendo.
+     */
+    public boolean revogado(Instant tokensValidosDesde, Claims claims) {
+        if (tokensValidosDesde == null) {
+            return false;
+        }
+        Long emitidoEmMs = JwtService.emitidoEmMs(claims);
+        return emitidoEmMs == null || emitidoEmMs < tokensValidosDesde.toEpochMilli();
+    }
+}
@@ -0,0 +1,120 @@
+package br.com.financeira.security;
+
+import br.com.financeira.exception.SobrecargaException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hash e conferência de senhas (BCrypt) em um pool próprio e limitado, fora das threads do Tomcat.
+ * <p>
+ * No máximo {@code seguranca.senha.threads} hashes rodam ao mesmo tempo e {@code seguranca.senha.fila}
+ * esperam; acima disso, ou se a espera passar de {@code seguranca.senha.espera-ms}, a requisição recebe 503
+ * na hora em vez de disputar CPU com o resto da API. Métricas: timer {@code seguranca.senha.hash}
+ * (tag {@code operacao}) e gauge {@code seguranca.senha.fila}. O hash só usa CPU, então este pool continua
+ * com threads de plataforma mesmo no modo de threads virtuais.
+ */
+@Service
+@RequiredArgsConstructor
+public class SenhaService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${seguranca.senha.threads:2}")
+    private int threads;
+
+    @Value("${seguranca.senha.fila:50}")
+    private int capacidadeFila;
+
+    @Value("${seguranca.senha.espera-ms:5000}")
+    private long esperaMs;
+
+    private ThreadPoolExecutor executor;
+    private Timer timerCodificar;
+    private Timer timerConferir;
+
+    @PostConstruct
+    void iniciar() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                r -> {
+                    Thread t = new Thread(r, "senha-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        timerCodificar = Timer.builder("seguranca.senha.hash").tag("operacao", "codificar").register(meterRegistry);
+        timerConferir = Timer.builder("seguranca.senha.hash").tag("operacao", "conferir").register(meterRegistry);
+        Gauge.builder("seguranca.senha.fila", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    public String codificar(String senha) {
+        return executar(timerCodificar.wrap(() -> passwordEncoder.encode(senha)));
+    }
+
+    /**
+     * Confere a senha com o hash salvo. Se conferir e o hash tiver sido gerado com um custo diferente do
+     * configurado (menor), já devolve o novo hash (calculado na mesma tarefa) para o chamador salvar.
+     */
+    public Conferencia conferir(String senha, String hash) {
+        return executar(() -> {
+            boolean confere = timerConferir.record(() -> passwordEncoder.matches(senha, hash));
+            if (!confere || !passwordEncoder.upgradeEncoding(hash)) {
+                return new Conferencia(confere, null);
+            }
+            return new Conferencia(true, timerCodificar.record(() -> passwordEncoder.encode(senha)));
+        });
+    }
+
+    private <T> T executar(Callable<T> tarefa) {
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(tarefa);
+        } catch (RejectedExecutionException e) {
+            throw new SobrecargaException("Muitas autenticações em andamento. Tente novamente em instantes.");
+        }
+        try {
+            return futuro.get(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            throw new SobrecargaException("Muitas autenticações em andamento. Tente novamente em instantes.");
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SobrecargaException("Autenticação interrompida. Tente novamente.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * @param hashAtualizado novo hash quando a senha confere mas o custo aumentou; null caso contrário
+     */
+    public record Conferencia(boolean confere, String hashAtualizado) {}
+}
@@ -14,9 +14,14 @@ public class UsuarioDetailsService implements UserDetailsService {
 
     private final UsuarioRepository usuarioRepository;
 
+    /**
+     * Carrega a entidade inteira (com a senha), sem cache. O filtro JWT só passa por aqui com tokens sem a claim
+     * {@code userId}; o caminho normal dele é {@link RevogacaoTokens#situacaoSeValido}.
+     */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         Usuario usuario = usuarioRepository.findByEmail(email)
+                .filter(u -> u.getExclusaoPendenteDesde() == null)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
         return UsuarioPrincipal.from(usuario);
     }
@@ -5,35 +5,57 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class UsuarioPrincipal implements UserDetails {
 
+    private static final List<GrantedAuthority> AUTHORITIES = List.of("USER").stream()
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toUnmodifiableList());
+
     private final Long id;
     private final String email;
     private final String senha;
     private final Collection<? extends GrantedAuthority> authorities;
+    private final Instant tokensValidosDesde;
 
     public UsuarioPrincipal(Long id, String email, String senha, Collection<? extends GrantedAuthority> authorities) {
+        this(id, email, senha, authorities, null);
+    }
+
+    public UsuarioPrincipal(Long id, String email, String senha, Collection<? extends GrantedAuthority> authorities,
+                            Instant tokensValidosDesde) {
         this.id = id;
         this.email = email;
         this.senha = senha;
         this.authorities = authorities;
+        this.tokensValidosDesde = tokensValidosDesde;
     }
 
     public static UsuarioPrincipal from(Usuario usuario) {
-        List<GrantedAuthority> auths = List.of("USER").stream()
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-        return new UsuarioPrincipal(usuario.getId(), usuario.getEmail(), usuario.getSenha(), auths);
+        return new UsuarioPrincipal(usuario.getId(), usuario.getEmail(), usuario.getSenha(), AUTHORITIES,
+                usuario.getTokensValidosDesde());
+    }
+
+    /**
+     * Principal montado só com as claims de um token já verificado (sem consultar o banco e sem senha).
+     */
+    public static UsuarioPrincipal fromToken(Long id, String email) {
+        return new UsuarioPrincipal(id, email, null, AUTHORITIES);
     }
 
     public Long getId() {
         return id;
     }
 
+    /** Ver {@link Usuario#getTokensValidosDesde()}; null no principal montado só do token. */
+    public Instant getTokensValidosDesde() {
+        return tokensValidosDesde;
+    }
+
     @Override
     public String getUsername() {
         return email;
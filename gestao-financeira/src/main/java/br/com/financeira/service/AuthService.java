@@ -6,21 +6,22 @@ import br.com.financeira.dto.UsuarioRequest;
 import br.com.financeira.entity.Usuario;
 import br.com.financeira.repository.UsuarioRepository;
 import br.com.financeira.security.JwtService;
+import br.com.financeira.security.SenhaService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UsuarioRepository usuarioRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final SenhaService senhaService;
     private final JwtService jwtService;
 
-    @Transactional
+    /**
+     * Sem transação em volta: o hash da senha (lento) não segura conexão do pool enquanto roda.
+     */
     public LoginResponse registrar(UsuarioRequest request) {
         if (usuarioRepository.existsByEmail(request.getEmail())) {
             throw new IllegalArgumentException("E-mail já cadastrado");
@@ -28,7 +29,7 @@ public class AuthService {
         Usuario usuario = Usuario.builder()
                 .nome(request.getNome())
                 .email(request.getEmail())
-                .senha(passwordEncoder.encode(request.getSenha()))
+                .senha(senhaService.codificar(request.getSenha()))
                 .build();
         usuario = usuarioRepository.save(usuario);
         String token = jwtService.gerarToken(usuario.getEmail(), usuario.getId());
@@ -44,9 +45,17 @@ public class AuthService {
     public LoginResponse login(LoginRequest request) {
         Usuario usuario = usuarioRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new BadCredentialsException("E-mail ou senha inválidos"));
-        if (!passwordEncoder.matches(request.getSenha(), usuario.getSenha())) {
+        SenhaService.Conferencia conferencia = senhaService.conferir(request.getSenha(), usuario.getSenha());
+        if (!conferencia.confere()) {
             throw new BadCredentialsException("E-mail ou senha inválidos");
         }
+        if (usuario.getExclusaoPendenteDesde() != null) {
+            throw new BadCredentialsException("Esta conta está sendo excluída");
+        }
+        if (conferencia.hashAtualizado() != null) {
+            // Custo do BCrypt mudou desde o cadastro: regrava o hash agora que temos a senha em mãos
+            usuarioRepository.atualizarSenha(usuario.getId(), conferencia.hashAtualizado());
+        }
         String token = jwtService.gerarToken(usuario.getEmail(), usuario.getId());
         return LoginResponse.builder()
                 .token(token)
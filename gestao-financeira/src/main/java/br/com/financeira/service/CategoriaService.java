@@ -5,12 +5,17 @@ import br.com.financeira.dto.CategoriaResponse;
 import br.com.financeira.entity.Categoria;
 import br.com.financeira.entity.Usuario;
 import br.com.financeira.repository.CategoriaRepository;
+import br.com.financeira.repository.ResumoMensalRepository;
+import br.com.financeira.repository.TransacaoRepository;
 import br.com.financeira.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,6 +24,10 @@ public class CategoriaService {
 
     private final CategoriaRepository categoriaRepository;
     private final UsuarioRepository usuarioRepository;
+    private final ResumoMensalService resumoMensalService;
+    private final ResumoMensalRepository resumoMensalRepository;
+    private final TransacaoRepository transacaoRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<CategoriaResponse> listarPorUsuario(Long usuarioId) {
@@ -41,6 +50,9 @@ public class CategoriaService {
                 .usuario(usuario)
                 .build();
         cat = categoriaRepository.save(cat);
+        // Categoria nova não muda relatórios, mas muda a listagem de categorias
+        eventPublisher.publishEvent(DadosAlteradosEvent.meses(usuarioId));
+        eventPublisher.publishEvent(new CategoriasAlteradasEvent(usuarioId));
         return toResponse(cat);
     }
 
@@ -54,9 +66,16 @@ public class CategoriaService {
         cat.setNome(request.getNome());
         cat.setDescricao(request.getDescricao());
         cat = categoriaRepository.save(cat);
+        // O nome da categoria aparece nos relatórios dos meses em que ela tem movimento
+        eventPublisher.publishEvent(new DadosAlteradosEvent(usuarioId, mesesComCategoria(categoriaId)));
+        eventPublisher.publishEvent(new CategoriasAlteradasEvent(usuarioId));
         return toResponse(cat);
     }
 
+    /**
+     * Exclui a categoria com três DELETEs em massa (resumos, transações, categoria), sem carregar as
+     * transações na sessão do Hibernate: o custo não depende de quantas transações a categoria tem.
+     */
     @Transactional
     public void excluir(Long usuarioId, Long categoriaId) {
         Categoria cat = categoriaRepository.findById(categoriaId)
@@ -64,7 +83,20 @@ public class CategoriaService {
         if (!cat.getUsuario().getId().equals(usuarioId)) {
             throw new IllegalArgumentException("Categoria não pertence ao usuário");
         }
+        resumoMensalService.travarUsuario(usuarioId);
+        Set<YearMonth> meses = mesesComCategoria(categoriaId);
+        resumoMensalService.excluirPorCategoria(categoriaId);
+        transacaoRepository.excluirPorCategoria(categoriaId);
         categoriaRepository.delete(cat);
+        eventPublisher.publishEvent(new DadosAlteradosEvent(usuarioId, meses));
+        eventPublisher.publishEvent(DescricoesAlteradasEvent.reindexar(usuarioId));
+        eventPublisher.publishEvent(new CategoriasAlteradasEvent(usuarioId));
+    }
+
+    private Set<YearMonth> mesesComCategoria(Long categoriaId) {
+        return resumoMensalRepository.mesesComCategoria(categoriaId).stream()
+                .map(m -> YearMonth.of(m / 100, m % 100))
+                .collect(Collectors.toSet());
     }
 
     private CategoriaResponse toResponse(Categoria c) {
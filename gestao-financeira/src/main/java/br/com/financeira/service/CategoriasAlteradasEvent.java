@@ -0,0 +1,7 @@
+package br.com.financeira.service;
+
+/**
+ * Publicado quando categorias do usuário são criadas, renomeadas ou excluídas; depois do commit o
+ * {@link CategoriasDoUsuario} descarta as categorias que tinha em memória para esse usuário.
+ */
+public record CategoriasAlteradasEvent(Long usuarioId) {}
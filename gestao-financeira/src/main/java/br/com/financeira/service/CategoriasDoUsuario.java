@@ -0,0 +1,81 @@
+package br.com.financeira.service;
+
+import br.com.financeira.repository.CategoriaNome;
+import br.com.financeira.repository.CategoriaRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Categorias de cada usuário (id → nome) em memória, para o caminho de escrita de transações conferir a posse
+ * da categoria e montar a resposta sem SELECT em {@code categorias}. Carregadas com uma consulta na primeira
+ * escrita do usuário e descartadas depois do commit de {@link CategoriaService} criar, atualizar ou excluir
+ * ({@link CategoriasAlteradasEvent}). O TTL cobre alterações feitas por outra instância.
+ * Métricas em /actuator/metrics/cache.* com {@code cache=categorias.usuario}.
+ */
+@Component
+public class CategoriasDoUsuario {
+
+    private final CategoriaRepository categoriaRepository;
+
+    private final Cache<Long, Map<Long, String>> cache;
+
+    /** Contador de alterações por usuário, para descartar categorias lidas enquanto houve escrita. */
+    private final Map<Long, AtomicLong> geracoes = new ConcurrentHashMap<>();
+
+    public CategoriasDoUsuario(CategoriaRepository categoriaRepository,
+                               @Value("${categorias.cache.max-usuarios:10000}") long maxUsuarios,
+                               @Value("${categorias.cache.ttl-minutos:10}") long ttlMinutos,
+                               MeterRegistry meterRegistry) {
+        this.categoriaRepository = categoriaRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsuarios)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "categorias.usuario");
+    }
+
+    /** Nome da categoria, ou {@code null} se ela não existe ou não é do usuário. */
+    public String nome(Long usuarioId, Long categoriaId) {
+        return categoriaId == null ? null : obter(usuarioId).get(categoriaId);
+    }
+
+    public boolean pertence(Long usuarioId, Long categoriaId) {
+        return nome(usuarioId, categoriaId) != null;
+    }
+
+    /** Mapa id → nome das categorias do usuário; não deve ser alterado. */
+    public Map<Long, String> obter(Long usuarioId) {
+        Map<Long, String> categorias = cache.getIfPresent(usuarioId);
+        if (categorias != null) {
+            return categorias;
+        }
+        // Consulta fora do cache, como em RelatorioCache (sem lock do Caffeine durante o JDBC)
+        AtomicLong geracao = geracoes.computeIfAbsent(usuarioId, id -> new AtomicLong());
+        long antes = geracao.get();
+        categorias = categoriaRepository.nomesPorUsuario(usuarioId).stream()
+                .collect(Collectors.toUnmodifiableMap(CategoriaNome::id, CategoriaNome::nome));
+        cache.put(usuarioId, categorias);
+        if (geracao.get() != antes) {
+            cache.invalidate(usuarioId);
+        }
+        return categorias;
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarCategorias(CategoriasAlteradasEvent evento) {
+        geracoes.computeIfAbsent(evento.usuarioId(), id -> new AtomicLong()).incrementAndGet();
+        cache.invalidate(evento.usuarioId());
+    }
+}
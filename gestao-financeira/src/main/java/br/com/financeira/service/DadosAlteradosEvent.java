@@ -0,0 +1,21 @@
+package br.com.financeira.service;
+
+import java.time.YearMonth;
+import java.util.Set;
+
+/**
+ * Publicado pelas escritas de transação/categoria de um usuário. {@code meses} são os meses cujos
+ * relatórios mudaram; null quando todos os meses do usuário podem ter mudado.
+ * Os ouvintes usam {@code @TransactionalEventListener}: os caches só reagem depois do commit; a versão dos
+ * dados ({@link VersaoDadosService}) é incrementada antes, na própria transação.
+ */
+public record DadosAlteradosEvent(Long usuarioId, Set<YearMonth> meses) {
+
+    public static DadosAlteradosEvent meses(Long usuarioId, YearMonth... meses) {
+        return new DadosAlteradosEvent(usuarioId, Set.of(meses));
+    }
+
+    public static DadosAlteradosEvent todosOsMeses(Long usuarioId) {
+        return new DadosAlteradosEvent(usuarioId, null);
+    }
+}
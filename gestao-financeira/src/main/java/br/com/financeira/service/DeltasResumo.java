@@ -0,0 +1,48 @@
+package br.com.financeira.service;
+
+import br.com.financeira.entity.Transacao;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Soma os deltas de várias transações por bucket do resumo (categoria, mês, tipo), para que uma escrita
+ * em lote faça um upsert por bucket em vez de um por linha. Aplicado com {@link ResumoMensalService#registrar(Long, DeltasResumo)}.
+ */
+public final class DeltasResumo {
+
+    private final Map<Bucket, Delta> deltas = new LinkedHashMap<>();
+
+    public void adicionar(Long categoriaId, YearMonth mes, Transacao.TipoTransacao tipo, BigDecimal valor, long quantidade) {
+        Delta d = deltas.computeIfAbsent(new Bucket(categoriaId, mes, tipo), b -> new Delta());
+        d.valor = d.valor.add(valor);
+        d.quantidade += quantidade;
+    }
+
+    public boolean vazio() {
+        return deltas.isEmpty();
+    }
+
+    /** Meses afetados, para o {@link DadosAlteradosEvent}. */
+    public Set<YearMonth> meses() {
+        Set<YearMonth> meses = new HashSet<>();
+        deltas.keySet().forEach(b -> meses.add(b.mes()));
+        return Collections.unmodifiableSet(meses);
+    }
+
+    Map<Bucket, Delta> porBucket() {
+        return deltas;
+    }
+
+    record Bucket(Long categoriaId, YearMonth mes, Transacao.TipoTransacao tipo) {}
+
+    static final class Delta {
+        BigDecimal valor = BigDecimal.ZERO;
+        long quantidade;
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.financeira.service;
+
+import br.com.financeira.repository.DescricaoTransacao;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Publicado pelas escritas de transação para manter o {@link IndiceDescricoes} atualizado depois do commit.
+ * {@code gravadas} são transações criadas ou alteradas e {@code removidas} os ids excluídos; ambos null quando
+ * a escrita não sabe quais linhas mudaram (exclusão em massa) e o índice do usuário precisa ser refeito.
+ */
+public record DescricoesAlteradasEvent(Long usuarioId, List<DescricaoTransacao> gravadas, Set<Long> removidas) {
+
+    public static DescricoesAlteradasEvent gravadas(Long usuarioId, List<DescricaoTransacao> gravadas) {
+        return new DescricoesAlteradasEvent(usuarioId, gravadas, Set.of());
+    }
+
+    public static DescricoesAlteradasEvent removidas(Long usuarioId, Set<Long> removidas) {
+        return new DescricoesAlteradasEvent(usuarioId, List.of(), removidas);
+    }
+
+    public static DescricoesAlteradasEvent reindexar(Long usuarioId) {
+        return new DescricoesAlteradasEvent(usuarioId, null, null);
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.financeira.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * Diretório onde uma fila de jobs (exportação, importação) guarda seus arquivos.
+ * <p>
+ * O diretório é configurável e pode ser compartilhado com outras coisas, então só são tocados os arquivos
+ * com o nome que os próprios jobs geram (id do job, um UUID, mais a extensão opcional); subdiretórios,
+ * links e qualquer outro arquivo ficam como estão.
+ */
+final class DiretorioDeJobs {
+
+    private static final Logger log = LoggerFactory.getLogger(DiretorioDeJobs.class);
+    private static final Pattern NOME_DE_JOB =
+            Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}(\\.[a-z]+)?");
+
+    private final Path raiz;
+
+    private DiretorioDeJobs(Path raiz) {
+        this.raiz = raiz;
+    }
+
+    /**
+     * Cria o diretório se preciso e apaga os arquivos de jobs de uma execução anterior, que não têm mais job
+     * associado em memória.
+     */
+    static DiretorioDeJobs preparar(String configurado) throws IOException {
+        Path raiz = Path.of(configurado);
+        Files.createDirectories(raiz);
+        try (DirectoryStream<Path> antigos = Files.newDirectoryStream(raiz, DiretorioDeJobs::arquivoDeJob)) {
+            for (Path p : antigos) {
+                apagar(p);
+            }
+        }
+        return new DiretorioDeJobs(raiz);
+    }
+
+    /** Caminho do arquivo de um job; {@code extensao} vazia ou no formato ".pdf". */
+    Path arquivo(String jobId, String extensao) {
+        String nome = jobId + extensao;
+        if (!NOME_DE_JOB.matcher(nome).matches()) {
+            throw new IllegalArgumentException("Nome de arquivo de job inválido: " + nome);
+        }
+        return raiz.resolve(nome);
+    }
+
+    static void apagar(Path arquivo) {
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar {}", arquivo, e);
+        }
+    }
+
+    private static boolean arquivoDeJob(Path p) {
+        return NOME_DE_JOB.matcher(p.getFileName().toString()).matches()
+                && Files.isRegularFile(p, LinkOption.NOFOLLOW_LINKS);
+    }
+}
@@ -0,0 +1,158 @@
+package br.com.financeira.service;
+
+import br.com.financeira.entity.Usuario;
+import br.com.financeira.exception.SobrecargaException;
+import br.com.financeira.repository.CategoriaRepository;
+import br.com.financeira.repository.ResumoMensalRepository;
+import br.com.financeira.repository.TransacaoRepository;
+import br.com.financeira.repository.UsuarioRepository;
+import br.com.financeira.security.RevogacaoTokens;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exclusão da conta do usuário com todos os dados, em segundo plano.
+ * <p>
+ * O pedido marca o usuário ({@code exclusao_pendente_desde}), o que recusa novos logins, e revoga os tokens na
+ * hora. Depois, numa thread própria, as transações são apagadas em blocos de {@code conta.exclusao.lote} (cada
+ * bloco numa transação curta, para não travar a tabela nem crescer o log do banco) e, por fim, numa última
+ * transação, o que sobrou, os resumos, as categorias e o usuário, que leva a marca junto. Se a aplicação cair ou
+ * a exclusão falhar no meio, a marca continua no banco e {@link #retomarPendentes} reagenda a exclusão na subida
+ * e a cada {@code conta.exclusao.retomar-ms}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExclusaoContaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExclusaoContaService.class);
+
+    private final TransacaoRepository transacaoRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final ResumoMensalRepository resumoMensalRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final RevogacaoTokens revogacaoTokens;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> emAndamento = ConcurrentHashMap.newKeySet();
+
+    @Value("${conta.exclusao.lote:5000}")
+    private int tamanhoLote;
+
+    @Value("${conta.exclusao.fila:100}")
+    private int capacidadeFila;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void iniciar() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                r -> {
+                    Thread t = new Thread(r, "exclusao-conta");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Marca a conta, revoga os tokens e agenda a exclusão. Chamar de novo enquanto a exclusão roda não faz nada.
+     * Com a fila cheia a marca fica gravada e a exclusão sai na próxima retomada.
+     */
+    public void excluir(Long usuarioId) {
+        usuarioRepository.marcarExclusaoPendente(usuarioId, Instant.now());
+        revogacaoTokens.revogar(usuarioId);
+        if (!agendar(usuarioId)) {
+            throw new SobrecargaException("Muitas exclusões de conta em andamento. Tente novamente em instantes.");
+        }
+    }
+
+    /**
+     * Reagenda as exclusões marcadas no banco que não estão rodando: interrompidas por uma parada da aplicação
+     * ou que falharam. A primeira execução é logo na subida.
+     */
+    @Scheduled(fixedDelayString = "${conta.exclusao.retomar-ms:600000}")
+    public void retomarPendentes() {
+        for (Usuario usuario : usuarioRepository.findByExclusaoPendenteDesdeIsNotNullOrderById()) {
+            if (emAndamento.contains(usuario.getId())) {
+                continue;
+            }
+            log.info("Retomando a exclusão da conta {} (pedida em {})", usuario.getId(), usuario.getExclusaoPendenteDesde());
+            if (!agendar(usuario.getId())) {
+                log.warn("Fila de exclusões cheia; as contas restantes ficam para a próxima retomada");
+                return;
+            }
+        }
+    }
+
+    /** @return false se a fila está cheia; true se agendou ou se a exclusão já estava em andamento. */
+    private boolean agendar(Long usuarioId) {
+        if (!emAndamento.add(usuarioId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> purgar(usuarioId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            emAndamento.remove(usuarioId);
+            return false;
+        }
+    }
+
+    private void purgar(Long usuarioId) {
+        try {
+            long inicio = System.nanoTime();
+            long apagadas = 0;
+            int bloco;
+            do {
+                bloco = transactionTemplate.execute(status -> {
+                    List<Long> ids = transacaoRepository.idsPorUsuario(usuarioId, PageRequest.of(0, tamanhoLote));
+                    return ids.isEmpty() ? 0 : transacaoRepository.excluirPorIds(ids);
+                });
+                apagadas += bloco;
+            } while (bloco > 0);
+            transactionTemplate.executeWithoutResult(status -> {
+                // Pega também o que tenha sido gravado durante os blocos (ex.: importação em andamento)
+                transacaoRepository.excluirPorUsuario(usuarioId);
+                resumoMensalRepository.excluirPorUsuario(usuarioId);
+                categoriaRepository.excluirPorUsuario(usuarioId);
+                usuarioRepository.excluirPorId(usuarioId);
+                eventPublisher.publishEvent(DadosAlteradosEvent.todosOsMeses(usuarioId));
+                eventPublisher.publishEvent(DescricoesAlteradasEvent.reindexar(usuarioId));
+                eventPublisher.publishEvent(new CategoriasAlteradasEvent(usuarioId));
+            });
+            // Sem o usuário no banco, nenhum token dele passa mais pelo filtro
+            revogacaoTokens.invalidar(usuarioId);
+            log.info("Conta {} excluída ({} transações) em {} ms", usuarioId, apagadas,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        } catch (Exception e) {
+            log.error("Falha ao excluir a conta {}; será retomada", usuarioId, e);
+        } finally {
+            emAndamento.remove(usuarioId);
+        }
+    }
+}
@@ -10,6 +10,9 @@ import com.lowagie.text.Paragraph;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 import com.lowagie.text.FontFactory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.Sheet;
@@ -17,14 +20,16 @@ import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Font;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
-import java.math.BigDecimal;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -32,51 +37,95 @@ public class ExportService {
 
     private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
-    public byte[] exportarRelatorioPdf(RelatorioMensalResponse relatorio) {
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Document doc = new Document(PageSize.A4);
+    private static final com.lowagie.text.Font FONTE_TITULO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18);
+    private static final com.lowagie.text.Font FONTE_NEGRITO = FontFactory.getFont(FontFactory.HELVETICA_BOLD);
+    private static final com.lowagie.text.Font FONTE_NORMAL = FontFactory.getFont(FontFactory.HELVETICA);
+    private static final int PDF_LINHAS_POR_BLOCO = 200;
+
+    private static final int EXCEL_JANELA_LINHAS = 100;
+    /** Larguras (em caracteres) de Data, Tipo, Categoria, Descrição e Valor. */
+    private static final int[] EXCEL_LARGURAS = {12, 10, 24, 50, 16};
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Gera o PDF direto no {@code out}. A tabela é marcada como incompleta e enviada ao documento a cada
+     * {@value #PDF_LINHAS_POR_BLOCO} linhas, então as páginas prontas já saem para o cliente e só o bloco
+     * atual fica em memória.
+     */
+    public void exportarRelatorioPdf(RelatorioMensalResponse relatorio, Stream<TransacaoResponse> transacoes,
+                                     OutputStream out) {
+        medir("pdf", "relatorio", out, o -> gerarRelatorioPdf(relatorio, transacoes, o));
+    }
+
+    private void gerarRelatorioPdf(RelatorioMensalResponse relatorio, Stream<TransacaoResponse> transacoes,
+                                   OutputStream out) {
+        Document doc = new Document(PageSize.A4);
+        try {
             PdfWriter.getInstance(doc, out);
             doc.open();
 
-            com.lowagie.text.Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18);
-            doc.add(new Paragraph("Relatório Financeiro - " + relatorio.getMes() + "/" + relatorio.getAno(), titleFont));
+            doc.add(new Paragraph("Relatório Financeiro - " + relatorio.getMes() + "/" + relatorio.getAno(), FONTE_TITULO));
             doc.add(Chunk.NEWLINE);
 
-            doc.add(new Paragraph("Total Entradas: R$ " + relatorio.getTotalEntradas()));
-            doc.add(new Paragraph("Total Saídas: R$ " + relatorio.getTotalSaidas()));
-            doc.add(new Paragraph("Saldo: R$ " + relatorio.getSaldo(), FontFactory.getFont(FontFactory.HELVETICA_BOLD)));
+            doc.add(new Paragraph("Total Entradas: R$ " + relatorio.getTotalEntradas(), FONTE_NORMAL));
+            doc.add(new Paragraph("Total Saídas: R$ " + relatorio.getTotalSaidas(), FONTE_NORMAL));
+            doc.add(new Paragraph("Saldo: R$ " + relatorio.getSaldo(), FONTE_NEGRITO));
             doc.add(Chunk.NEWLINE);
 
             PdfPTable table = new PdfPTable(5);
             table.setWidthPercentage(100f);
             table.setWidths(new float[]{1.5f, 2f, 2f, 3f, 2f});
+            table.setHeaderRows(1);
+            table.setComplete(false);
             table.addCell("Data");
             table.addCell("Tipo");
             table.addCell("Categoria");
             table.addCell("Descrição");
             table.addCell("Valor");
-            for (TransacaoResponse t : relatorio.getTransacoes()) {
+            int linhas = 0;
+            Iterator<TransacaoResponse> it = transacoes.iterator();
+            while (it.hasNext()) {
+                TransacaoResponse t = it.next();
                 table.addCell(t.getData().format(DATE_FMT));
                 table.addCell(t.getTipo().name());
                 table.addCell(t.getCategoriaNome());
                 table.addCell(t.getDescricao() != null ? t.getDescricao() : "");
                 table.addCell("R$ " + t.getValor());
+                if (++linhas % PDF_LINHAS_POR_BLOCO == 0) {
+                    doc.add(table);
+                }
             }
+            table.setComplete(true);
             doc.add(table);
-            doc.close();
-            return out.toByteArray();
-        } catch (DocumentException | IOException e) {
+        } catch (DocumentException e) {
             throw new RuntimeException("Erro ao gerar PDF", e);
+        } finally {
+            // Também quando a geração falha no meio: libera o PdfWriter e o que ele guarda do documento
+            if (doc.isOpen()) {
+                doc.close();
+            }
         }
     }
 
-    public byte[] exportarRelatorioExcel(RelatorioMensalResponse relatorio) {
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+    /**
+     * Gera o Excel direto no {@code out}. Usa SXSSF: só as últimas {@value #EXCEL_JANELA_LINHAS} linhas ficam
+     * em memória (o resto vai para arquivo temporário), e as larguras das colunas são fixas em vez de autoSizeColumn,
+     * que percorreria todas as linhas.
+     */
+    public void exportarRelatorioExcel(RelatorioMensalResponse relatorio, Stream<TransacaoResponse> transacoes,
+                                       OutputStream out) {
+        medir("excel", "relatorio", out, o -> gerarRelatorioExcel(relatorio, transacoes, o));
+    }
+
+    private void gerarRelatorioExcel(RelatorioMensalResponse relatorio, Stream<TransacaoResponse> transacoes,
+                                     OutputStream out) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_JANELA_LINHAS);
+        workbook.setCompressTempFiles(true);
+        try {
             Sheet sheet = workbook.createSheet("Relatório " + relatorio.getMes() + "_" + relatorio.getAno());
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
+            definirLarguras(sheet);
+            CellStyle headerStyle = estiloCabecalho(workbook);
 
             int rowNum = 0;
             Row headerRow = sheet.createRow(rowNum++);
@@ -92,62 +141,67 @@ public class ExportService {
             createRow(sheet, rowNum++, "Saldo", "R$ " + relatorio.getSaldo());
             rowNum++;
 
-            Row tableHeader = sheet.createRow(rowNum++);
-            String[] colHeaders = {"Data", "Tipo", "Categoria", "Descrição", "Valor"};
-            for (int i = 0; i < colHeaders.length; i++) {
-                Cell c = tableHeader.createCell(i);
-                c.setCellValue(colHeaders[i]);
-                c.setCellStyle(headerStyle);
-            }
-            for (TransacaoResponse t : relatorio.getTransacoes()) {
-                Row r = sheet.createRow(rowNum++);
-                r.createCell(0).setCellValue(t.getData().format(DATE_FMT));
-                r.createCell(1).setCellValue(t.getTipo().name());
-                r.createCell(2).setCellValue(t.getCategoriaNome());
-                r.createCell(3).setCellValue(t.getDescricao() != null ? t.getDescricao() : "");
-                r.createCell(4).setCellValue(t.getValor().doubleValue());
-            }
-            for (int i = 0; i < 5; i++) {
-                sheet.autoSizeColumn(i);
-            }
+            escreverTransacoes(sheet, rowNum, headerStyle, transacoes);
             workbook.write(out);
-            return out.toByteArray();
+            out.flush();
         } catch (Exception e) {
             throw new RuntimeException("Erro ao gerar Excel", e);
+        } finally {
+            workbook.dispose();
         }
     }
 
-    public byte[] exportarTransacoesExcel(List<TransacaoResponse> transacoes) {
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet("Transações");
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
+    public void exportarTransacoesExcel(Stream<TransacaoResponse> transacoes, OutputStream out) {
+        medir("excel", "transacoes", out, o -> gerarTransacoesExcel(transacoes, o));
+    }
 
-            Row headerRow = sheet.createRow(0);
-            String[] headers = {"Data", "Tipo", "Categoria", "Descrição", "Valor"};
-            for (int i = 0; i < headers.length; i++) {
-                Cell c = headerRow.createCell(i);
-                c.setCellValue(headers[i]);
-                c.setCellStyle(headerStyle);
-            }
-            int rowNum = 1;
-            for (TransacaoResponse t : transacoes) {
-                Row r = sheet.createRow(rowNum++);
-                r.createCell(0).setCellValue(t.getData().format(DATE_FMT));
-                r.createCell(1).setCellValue(t.getTipo().name());
-                r.createCell(2).setCellValue(t.getCategoriaNome());
-                r.createCell(3).setCellValue(t.getDescricao() != null ? t.getDescricao() : "");
-                r.createCell(4).setCellValue(t.getValor().doubleValue());
-            }
-            for (int i = 0; i < 5; i++) {
-                sheet.autoSizeColumn(i);
-            }
+    private void gerarTransacoesExcel(Stream<TransacaoResponse> transacoes, OutputStream out) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_JANELA_LINHAS);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet("Transações");
+            definirLarguras(sheet);
+            escreverTransacoes(sheet, 0, estiloCabecalho(workbook), transacoes);
             workbook.write(out);
-            return out.toByteArray();
+            out.flush();
         } catch (Exception e) {
             throw new RuntimeException("Erro ao gerar Excel", e);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    private void escreverTransacoes(Sheet sheet, int primeiraLinha, CellStyle headerStyle,
+                                    Stream<TransacaoResponse> transacoes) {
+        Row tableHeader = sheet.createRow(primeiraLinha);
+        String[] colHeaders = {"Data", "Tipo", "Categoria", "Descrição", "Valor"};
+        for (int i = 0; i < colHeaders.length; i++) {
+            Cell c = tableHeader.createCell(i);
+            c.setCellValue(colHeaders[i]);
+            c.setCellStyle(headerStyle);
+        }
+        int[] rowNum = {primeiraLinha + 1};
+        transacoes.forEachOrdered(t -> {
+            Row r = sheet.createRow(rowNum[0]++);
+            r.createCell(0).setCellValue(t.getData().format(DATE_FMT));
+            r.createCell(1).setCellValue(t.getTipo().name());
+            r.createCell(2).setCellValue(t.getCategoriaNome());
+            r.createCell(3).setCellValue(t.getDescricao() != null ? t.getDescricao() : "");
+            r.createCell(4).setCellValue(t.getValor().doubleValue());
+        });
+    }
+
+    private CellStyle estiloCabecalho(Workbook workbook) {
+        CellStyle headerStyle = workbook.createCellStyle();
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
+        return headerStyle;
+    }
+
+    private void definirLarguras(Sheet sheet) {
+        for (int i = 0; i < EXCEL_LARGURAS.length; i++) {
+            sheet.setColumnWidth(i, EXCEL_LARGURAS[i] * 256);
         }
     }
 
@@ -156,4 +210,54 @@ public class ExportService {
         r.createCell(0).setCellValue(label);
         r.createCell(1).setCellValue(value);
     }
+
+    /**
+     * Tempo de geração ({@code exportacao.geracao}, por formato, conteúdo e resultado) e bytes escritos
+     * ({@code exportacao.tamanho}). Como o arquivo é escrito direto no destino, no download síncrono o tempo
+     * inclui a espera pelo cliente.
+     */
+    private void medir(String formato, String conteudo, OutputStream out, Consumer<OutputStream> gerar) {
+        ContadorDeBytes contador = new ContadorDeBytes(out);
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        String resultado = "erro";
+        try {
+            gerar.accept(contador);
+            resultado = "ok";
+        } finally {
+            amostra.stop(Timer.builder("exportacao.geracao")
+                    .tag("formato", formato)
+                    .tag("conteudo", conteudo)
+                    .tag("resultado", resultado)
+                    .register(meterRegistry));
+            if ("ok".equals(resultado)) {
+                DistributionSummary.builder("exportacao.tamanho")
+                        .baseUnit("bytes")
+                        .tag("formato", formato)
+                        .tag("conteudo", conteudo)
+                        .register(meterRegistry)
+                        .record(contador.bytes);
+            }
+        }
+    }
+
+    /** Repassa tudo para o destino contando os bytes (sem o write byte a byte do FilterOutputStream). */
+    private static final class ContadorDeBytes extends FilterOutputStream {
+        long bytes;
+
+        ContadorDeBytes(OutputStream destino) {
+            super(destino);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytes += len;
+        }
+    }
 }
@@ -0,0 +1,293 @@
+package br.com.financeira.service;
+
+import br.com.financeira.dto.ExportacaoRequest;
+import br.com.financeira.dto.ExportacaoResponse;
+import br.com.financeira.dto.RelatorioMensalResponse;
+import br.com.financeira.exception.LimiteExcedidoException;
+import br.com.financeira.exception.SobrecargaException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Fila de exportações PDF/Excel fora das threads do Tomcat.
+ * <p>
+ * Os arquivos são gerados por um pool fixo ({@code exportacao.jobs.threads}) com fila limitada
+ * ({@code exportacao.jobs.fila}) em um diretório temporário, e apagados {@code exportacao.jobs.ttl-minutos}
+ * depois de prontos. Cada usuário pode ter no máximo {@code exportacao.jobs.por-usuario} exportações
+ * na fila ou em andamento. O estado dos jobs fica só em memória. Com {@code spring.threads.virtual.enabled}
+ * as tarefas rodam em threads virtuais (o pool continua limitando quantas rodam ao mesmo tempo).
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportacaoJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportacaoJobService.class);
+
+    private final RelatorioService relatorioService;
+    private final ExportService exportService;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> ativosPorUsuario = new ConcurrentHashMap<>();
+
+    @Value("${exportacao.jobs.threads:2}")
+    private int threads;
+
+    @Value("${exportacao.jobs.fila:20}")
+    private int capacidadeFila;
+
+    @Value("${exportacao.jobs.por-usuario:2}")
+    private int limitePorUsuario;
+
+    @Value("${exportacao.jobs.ttl-minutos:30}")
+    private long ttlMinutos;
+
+    @Value("${exportacao.jobs.diretorio:${java.io.tmpdir}/gestao-financeira-exportacoes}")
+    private String diretorioConfigurado;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean threadsVirtuais;
+
+    @Value("${exportacao.jobs.margem-download-minutos:10}")
+    private long margemDownloadMinutos;
+
+    private DiretorioDeJobs diretorio;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        diretorio = DiretorioDeJobs.preparar(diretorioConfigurado);
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), fabricaDeThreads(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private ThreadFactory fabricaDeThreads() {
+        if (threadsVirtuais) {
+            return new VirtualThreadTaskExecutor("exportacao-").getVirtualThreadFactory();
+        }
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "exportacao-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    public ExportacaoResponse criar(Long usuarioId, ExportacaoRequest request) {
+        AtomicInteger ativos = ativosPorUsuario.computeIfAbsent(usuarioId, id -> new AtomicInteger());
+        if (ativos.incrementAndGet() > limitePorUsuario) {
+            ativos.decrementAndGet();
+            throw new LimiteExcedidoException("Você já tem " + limitePorUsuario + " exportações em andamento. Aguarde terminar.");
+        }
+        Job job = new Job(UUID.randomUUID().toString(), usuarioId, request.getFormato(), request.getAno(), request.getMes());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> executar(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            ativos.decrementAndGet();
+            throw new SobrecargaException("Fila de exportações cheia. Tente novamente em instantes.");
+        }
+        return job.toResponse();
+    }
+
+    public ExportacaoResponse status(Long usuarioId, String jobId) {
+        return buscar(usuarioId, jobId).toResponse();
+    }
+
+    public List<ExportacaoResponse> listar(Long usuarioId) {
+        return jobs.values().stream()
+                .filter(j -> j.usuarioId.equals(usuarioId))
+                .sorted(Comparator.comparing((Job j) -> j.criadoEm).reversed())
+                .map(Job::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Arquivo pronto para download; falha se o job não existe, não é do usuário ou ainda não terminou.
+     * <p>
+     * O download fica registrado no job até o {@link ArquivoExportado#close()}, e a limpeza não apaga o arquivo
+     * enquanto houver download aberto nem nos {@code exportacao.jobs.margem-download-minutos} seguintes ao último
+     * começo de download: com sendfile o Tomcat envia o arquivo depois que o controller já retornou.
+     */
+    public ArquivoExportado arquivo(Long usuarioId, String jobId) {
+        Job job = buscar(usuarioId, jobId);
+        synchronized (job) {
+            if (job.removido) {
+                throw new IllegalArgumentException("Exportação não encontrada");
+            }
+            if (job.status != ExportacaoResponse.Status.CONCLUIDO || !Files.exists(job.arquivo)) {
+                throw new IllegalArgumentException("Exportação ainda não está pronta");
+            }
+            job.downloadsAbertos++;
+            job.ultimoDownloadEm = Instant.now();
+        }
+        String extensao = job.formato == ExportacaoRequest.Formato.PDF ? ".pdf" : ".xlsx";
+        AtomicBoolean fechado = new AtomicBoolean();
+        return new ArquivoExportado(job.arquivo, "relatorio_" + job.ano + "_" + job.mes + extensao, job.formato,
+                () -> {
+                    if (fechado.compareAndSet(false, true)) {
+                        synchronized (job) {
+                            job.downloadsAbertos--;
+                        }
+                    }
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${exportacao.jobs.limpeza-ms:60000}")
+    public void limparExpirados() {
+        Instant agora = Instant.now();
+        Instant downloadsAte = agora.minus(Duration.ofMinutes(margemDownloadMinutos));
+        jobs.values().removeIf(job -> {
+            synchronized (job) {
+                if (job.expiraEm == null || job.expiraEm.isAfter(agora) || job.downloadsAbertos > 0
+                        || (job.ultimoDownloadEm != null && job.ultimoDownloadEm.isAfter(downloadsAte))) {
+                    return false;
+                }
+                job.removido = true;
+            }
+            DiretorioDeJobs.apagar(job.arquivo);
+            return true;
+        });
+    }
+
+    private Job buscar(Long usuarioId, String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || job.removido || !job.usuarioId.equals(usuarioId)) {
+            throw new IllegalArgumentException("Exportação não encontrada");
+        }
+        return job;
+    }
+
+    private void executar(Job job) {
+        job.status = ExportacaoResponse.Status.PROCESSANDO;
+        String extensao = job.formato == ExportacaoRequest.Formato.PDF ? ".pdf" : ".xlsx";
+        job.arquivo = diretorio.arquivo(job.id, extensao);
+        try {
+            RelatorioMensalResponse relatorio = relatorioService.relatorioMensal(job.usuarioId, job.ano, job.mes, false);
+            job.linhasTotal = relatorio.getPorCategoria().stream()
+                    .mapToLong(RelatorioMensalResponse.ResumoPorCategoria::getQuantidade)
+                    .sum();
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(job.arquivo))) {
+                var comProgresso = relatorioService.transacoesDoMes(job.usuarioId, job.ano, job.mes)
+                        .peek(t -> job.linhasProcessadas.incrementAndGet());
+                if (job.formato == ExportacaoRequest.Formato.PDF) {
+                    exportService.exportarRelatorioPdf(relatorio, comProgresso, out);
+                } else {
+                    exportService.exportarRelatorioExcel(relatorio, comProgresso, out);
+                }
+            }
+            job.concluidoEm = Instant.now();
+            job.status = ExportacaoResponse.Status.CONCLUIDO;
+        } catch (Exception e) {
+            log.warn("Falha na exportação {} do usuário {}", job.id, job.usuarioId, e);
+            DiretorioDeJobs.apagar(job.arquivo);
+            job.erro = "Erro ao gerar o arquivo";
+            job.concluidoEm = Instant.now();
+            job.status = ExportacaoResponse.Status.ERRO;
+        } finally {
+            if (job.concluidoEm == null) {
+                job.concluidoEm = Instant.now();
+            }
+            job.expiraEm = job.concluidoEm.plus(Duration.ofMinutes(ttlMinutos));
+            ativosPorUsuario.get(job.usuarioId).decrementAndGet();
+        }
+    }
+
+    /** Fechar encerra o registro do download no job. */
+    public record ArquivoExportado(Path caminho, String nome, ExportacaoRequest.Formato formato, Runnable aoFechar)
+            implements AutoCloseable {
+
+        @Override
+        public void close() {
+            aoFechar.run();
+        }
+    }
+
+    private static final class Job {
+        final String id;
+        final Long usuarioId;
+        final ExportacaoRequest.Formato formato;
+        final int ano;
+        final int mes;
+        final Instant criadoEm = Instant.now();
+        final AtomicLong linhasProcessadas = new AtomicLong();
+        volatile long linhasTotal;
+        volatile ExportacaoResponse.Status status = ExportacaoResponse.Status.NA_FILA;
+        volatile Path arquivo;
+        volatile String erro;
+        volatile Instant concluidoEm;
+        volatile Instant expiraEm;
+        // Protegidos pelo monitor do job
+        int downloadsAbertos;
+        Instant ultimoDownloadEm;
+        volatile boolean removido;
+
+        Job(String id, Long usuarioId, ExportacaoRequest.Formato formato, int ano, int mes) {
+            this.id = id;
+            this.usuarioId = usuarioId;
+            this.formato = formato;
+            this.ano = ano;
+            this.mes = mes;
+        }
+
+        ExportacaoResponse toResponse() {
+            long processadas = linhasProcessadas.get();
+            int progresso;
+            if (status == ExportacaoResponse.Status.CONCLUIDO) {
+                progresso = 100;
+            } else if (linhasTotal > 0) {
+                progresso = (int) Math.min(99, processadas * 100 / linhasTotal);
+            } else {
+                progresso = 0;
+            }
+            return ExportacaoResponse.builder()
+                    .id(id)
+                    .formato(formato)
+                    .ano(ano)
+                    .mes(mes)
+                    .status(status)
+                    .linhasProcessadas(processadas)
+                    .linhasTotal(linhasTotal)
+                    .progresso(progresso)
+                    .erro(erro)
+                    .criadoEm(criadoEm)
+                    .concluidoEm(concluidoEm)
+                    .expiraEm(expiraEm)
+                    .build();
+        }
+    }
+}
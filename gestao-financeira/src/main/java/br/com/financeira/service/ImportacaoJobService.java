@@ -0,0 +1,492 @@
+package br.com.financeira.service;
+
+import br.com.financeira.dto.ImportacaoResponse;
+import br.com.financeira.entity.Categoria;
+import br.com.financeira.entity.Transacao;
+import br.com.financeira.entity.Usuario;
+import br.com.financeira.exception.LimiteExcedidoException;
+import br.com.financeira.exception.SobrecargaException;
+import br.com.financeira.repository.CategoriaRepository;
+import br.com.financeira.repository.DescricaoTransacao;
+import br.com.financeira.repository.TransacaoRepository;
+import br.com.financeira.repository.UsuarioRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de extratos (CSV ou OFX) em segundo plano.
+ * <p>
+ * O upload vai para um arquivo temporário e é lido em streaming; a cada {@code importacao.lote} linhas abre-se
+ * uma transação curta que descarta as já importadas (pelo {@code hash_conteudo}), grava as novas em lote JDBC
+ * e soma o resumo mensal por bucket. A memória é limitada qualquer que seja o tamanho do arquivo: um lote e as
+ * contagens de ocorrência de até {@code importacao.ocorrencias.max} conteúdos distintos.
+ * Cada usuário tem no máximo {@code importacao.jobs.por-usuario} importações na fila ou em andamento. Importações
+ * simultâneas do mesmo usuário não duplicam linhas: cada lote confere e grava com o usuário travado
+ * ({@link ResumoMensalService#travarUsuario}), e o índice único {@code (usuario_id, hash_conteudo)} garante o resto.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImportacaoJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoJobService.class);
+    private static final int MAX_ERROS_REPORTADOS = 20;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final TransacaoRepository transacaoRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final ResumoMensalService resumoMensalService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    /** Importações na fila ou em andamento por usuário; a entrada sai quando chega a zero. */
+    private final Map<Long, Integer> ativosPorUsuario = new ConcurrentHashMap<>();
+
+    @Value("${importacao.jobs.threads:2}")
+    private int threads;
+
+    @Value("${importacao.jobs.fila:20}")
+    private int capacidadeFila;
+
+    @Value("${importacao.jobs.por-usuario:1}")
+    private int limitePorUsuario;
+
+    @Value("${importacao.jobs.ttl-minutos:30}")
+    private long ttlMinutos;
+
+    @Value("${importacao.lote:1000}")
+    private int tamanhoLote;
+
+    @Value("${importacao.ocorrencias.max:100000}")
+    private int maxOcorrencias;
+
+    @Value("${importacao.jobs.diretorio:${java.io.tmpdir}/gestao-financeira-importacoes}")
+    private String diretorioConfigurado;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean threadsVirtuais;
+
+    private DiretorioDeJobs diretorio;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        diretorio = DiretorioDeJobs.preparar(diretorioConfigurado);
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), fabricaDeThreads(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private ThreadFactory fabricaDeThreads() {
+        if (threadsVirtuais) {
+            return new VirtualThreadTaskExecutor("importacao-").getVirtualThreadFactory();
+        }
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "importacao-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param formato  null para deduzir pela extensão do arquivo (.csv, .ofx/.qfx)
+     * @param charset  null para UTF-8 (extratos de bancos brasileiros costumam vir em ISO-8859-1)
+     */
+    public ImportacaoResponse criar(Long usuarioId, MultipartFile arquivo, Long categoriaPadraoId,
+                                    ImportacaoResponse.Formato formato, String charset) throws IOException {
+        if (arquivo.isEmpty()) {
+            throw new IllegalArgumentException("Arquivo vazio");
+        }
+        ImportacaoResponse.Formato f = formato != null ? formato : formatoPelaExtensao(arquivo.getOriginalFilename());
+        Charset cs;
+        try {
+            cs = charset == null || charset.isBlank() ? StandardCharsets.UTF_8 : Charset.forName(charset);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Charset inválido: " + charset);
+        }
+        if (categoriaRepository.idsDoUsuario(usuarioId, List.of(categoriaPadraoId)).isEmpty()) {
+            throw new IllegalArgumentException("Categoria não encontrada");
+        }
+        if (!reservar(usuarioId)) {
+            throw new LimiteExcedidoException("Você já tem uma importação em andamento. Aguarde terminar.");
+        }
+        Job job = new Job(UUID.randomUUID().toString(), usuarioId, f, arquivo.getOriginalFilename(), categoriaPadraoId, cs);
+        try {
+            job.arquivo = diretorio.arquivo(job.id, "");
+            arquivo.transferTo(job.arquivo);
+            job.bytesTotal = Files.size(job.arquivo);
+            jobs.put(job.id, job);
+            executor.execute(() -> executar(job));
+        } catch (RejectedExecutionException e) {
+            descartar(job);
+            throw new SobrecargaException("Fila de importações cheia. Tente novamente em instantes.");
+        } catch (IOException | RuntimeException e) {
+            descartar(job);
+            throw e;
+        }
+        return job.toResponse();
+    }
+
+    public ImportacaoResponse status(Long usuarioId, String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.usuarioId.equals(usuarioId)) {
+            throw new IllegalArgumentException("Importação não encontrada");
+        }
+        return job.toResponse();
+    }
+
+    public List<ImportacaoResponse> listar(Long usuarioId) {
+        return jobs.values().stream()
+                .filter(j -> j.usuarioId.equals(usuarioId))
+                .sorted(Comparator.comparing((Job j) -> j.criadoEm).reversed())
+                .map(Job::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${importacao.jobs.limpeza-ms:60000}")
+    public void limparExpirados() {
+        Instant agora = Instant.now();
+        jobs.values().removeIf(job -> job.expiraEm != null && !job.expiraEm.isAfter(agora));
+    }
+
+    private void descartar(Job job) {
+        jobs.remove(job.id);
+        DiretorioDeJobs.apagar(job.arquivo);
+        liberar(job.usuarioId);
+    }
+
+    /** Conta mais uma importação do usuário se ainda estiver abaixo do limite. */
+    private boolean reservar(Long usuarioId) {
+        boolean[] reservado = new boolean[1];
+        ativosPorUsuario.compute(usuarioId, (id, ativos) -> {
+            int n = ativos != null ? ativos : 0;
+            if (n >= limitePorUsuario) {
+                return ativos;
+            }
+            reservado[0] = true;
+            return n + 1;
+        });
+        return reservado[0];
+    }
+
+    private void liberar(Long usuarioId) {
+        ativosPorUsuario.computeIfPresent(usuarioId, (id, ativos) -> ativos > 1 ? ativos - 1 : null);
+    }
+
+    private static ImportacaoResponse.Formato formatoPelaExtensao(String nome) {
+        String n = nome != null ? nome.toLowerCase(Locale.ROOT) : "";
+        if (n.endsWith(".csv")) {
+            return ImportacaoResponse.Formato.CSV;
+        }
+        if (n.endsWith(".ofx") || n.endsWith(".qfx")) {
+            return ImportacaoResponse.Formato.OFX;
+        }
+        throw new IllegalArgumentException("Informe o formato (CSV ou OFX)");
+    }
+
+    private void executar(Job job) {
+        job.status = ImportacaoResponse.Status.PROCESSANDO;
+        try (InputStream in = new Contador(Files.newInputStream(job.arquivo), job);
+             LeitorExtrato leitor = job.formato == ImportacaoResponse.Formato.CSV
+                     ? new LeitorExtratoCsv(new InputStreamReader(in, job.charset))
+                     : new LeitorExtratoOfx(new InputStreamReader(in, job.charset))) {
+            Map<String, Long> categorias = new HashMap<>();
+            for (Categoria c : categoriaRepository.findByUsuarioIdOrderByNome(job.usuarioId)) {
+                categorias.putIfAbsent(chaveCategoria(c.getNome()), c.getId());
+            }
+            // Quantas vezes cada conteúdo já apareceu no arquivo: duas compras iguais no mesmo dia são
+            // transações diferentes (ocorrência 1 e 2), mas reenviar o arquivo gera os mesmos hashes.
+            // A chave são os primeiros 8 bytes do hash: uma colisão só muda o número da ocorrência, que continua
+            // determinístico para o mesmo arquivo. Ficam os maxOcorrencias conteúdos vistos por último: uma linha
+            // igual a outra muito anterior recomeça na ocorrência 1 e é contada como duplicada, sempre do
+            // mesmo jeito para o mesmo arquivo.
+            Map<Long, Integer> ocorrencias = ultimosVistos(maxOcorrencias);
+            List<LinhaImportada> lote = new ArrayList<>(tamanhoLote);
+            LinhaExtrato linha;
+            while ((linha = leitor.proxima()) != null) {
+                job.linhasLidas++;
+                if (linha.erro() != null) {
+                    rejeitar(job, linha.numero(), linha.erro());
+                    continue;
+                }
+                String erro = validar(linha);
+                if (erro != null) {
+                    rejeitar(job, linha.numero(), erro);
+                    continue;
+                }
+                Long categoriaId = linha.categoria() != null && !linha.categoria().isBlank()
+                        ? categorias.getOrDefault(chaveCategoria(linha.categoria()), job.categoriaPadraoId)
+                        : job.categoriaPadraoId;
+                Transacao.TipoTransacao tipo = linha.tipo() != null ? linha.tipo()
+                        : linha.valor().signum() < 0 ? Transacao.TipoTransacao.SAIDA : Transacao.TipoTransacao.ENTRADA;
+                BigDecimal valor = linha.valor().abs().setScale(2, RoundingMode.HALF_UP);
+                String descricao = linha.descricao() != null ? linha.descricao().trim().replaceAll("\\s+", " ") : null;
+                String conteudo = linha.data() + "|" + tipo + "|" + valor.toPlainString() + "|"
+                        + (descricao != null ? descricao.toLowerCase(Locale.ROOT) : "");
+                byte[] base = sha256(conteudo);
+                int ocorrencia = ocorrencias.merge(ByteBuffer.wrap(base).getLong(), 1, Integer::sum);
+                String hash = HEX.formatHex(ocorrencia == 1 ? base : sha256(conteudo + "#" + ocorrencia));
+                if (descricao != null && descricao.length() > 500) {
+                    descricao = descricao.substring(0, 500);
+                }
+                lote.add(new LinhaImportada(linha.data(), valor, tipo, descricao, categoriaId, hash));
+                if (lote.size() >= tamanhoLote) {
+                    gravar(job, lote);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                gravar(job, lote);
+            }
+            job.concluidoEm = Instant.now();
+            job.status = ImportacaoResponse.Status.CONCLUIDO;
+        } catch (IllegalArgumentException e) {
+            falhar(job, e.getMessage());
+        } catch (Exception e) {
+            log.warn("Falha na importação {} do usuário {}", job.id, job.usuarioId, e);
+            falhar(job, "Erro ao importar o arquivo");
+        } finally {
+            if (job.concluidoEm == null) {
+                job.concluidoEm = Instant.now();
+            }
+            job.expiraEm = job.concluidoEm.plus(Duration.ofMinutes(ttlMinutos));
+            DiretorioDeJobs.apagar(job.arquivo);
+            liberar(job.usuarioId);
+        }
+    }
+
+    /**
+     * Uma transação por lote: se cair no meio, os lotes anteriores continuam gravados e reenviar o arquivo
+     * só importa o que faltou. Os contadores do job só mudam depois do commit.
+     */
+    private void gravar(Job job, List<LinhaImportada> lote) {
+        Integer gravadas = transactionTemplate.execute(status -> {
+            resumoMensalService.travarUsuario(job.usuarioId);
+            Set<String> existentes = new HashSet<>(transacaoRepository.hashesExistentes(job.usuarioId,
+                    lote.stream().map(LinhaImportada::hash).collect(Collectors.toList())));
+            Usuario usuario = usuarioRepository.getReferenceById(job.usuarioId);
+            List<Transacao> novas = new ArrayList<>(lote.size());
+            DeltasResumo deltas = new DeltasResumo();
+            for (LinhaImportada l : lote) {
+                // add: também descarta um hash repetido dentro do próprio lote
+                if (!existentes.add(l.hash())) {
+                    continue;
+                }
+                novas.add(Transacao.builder()
+                        .data(l.data())
+                        .valor(l.valor())
+                        .tipo(l.tipo())
+                        .descricao(l.descricao())
+                        .categoria(categoriaRepository.getReferenceById(l.categoriaId()))
+                        .usuario(usuario)
+                        .hashConteudo(l.hash())
+                        .build());
+                deltas.adicionar(l.categoriaId(), YearMonth.from(l.data()), l.tipo(), l.valor(), 1);
+            }
+            transacaoRepository.saveAll(novas);
+            if (!deltas.vazio()) {
+                resumoMensalService.registrar(job.usuarioId, deltas);
+                eventPublisher.publishEvent(new DadosAlteradosEvent(job.usuarioId, deltas.meses()));
+                eventPublisher.publishEvent(DescricoesAlteradasEvent.gravadas(job.usuarioId, novas.stream()
+                        .map(t -> new DescricaoTransacao(t.getId(), t.getData(), t.getDescricao()))
+                        .collect(Collectors.toList())));
+            }
+            return novas.size();
+        });
+        int importadas = gravadas != null ? gravadas : 0;
+        job.importadas += importadas;
+        job.duplicadas += lote.size() - importadas;
+    }
+
+    private static String validar(LinhaExtrato linha) {
+        if (linha.valor().signum() == 0) {
+            return "valor zerado";
+        }
+        if (linha.data().getYear() < 1900 || linha.data().getYear() > 9999) {
+            return "data fora do intervalo";
+        }
+        return null;
+    }
+
+    private void rejeitar(Job job, long numero, String erro) {
+        job.rejeitadas++;
+        if (job.erros.size() < MAX_ERROS_REPORTADOS) {
+            String onde = job.formato == ImportacaoResponse.Formato.CSV ? "linha " : "transação ";
+            job.erros.add(onde + numero + ": " + erro);
+        }
+    }
+
+    private void falhar(Job job, String erro) {
+        job.erro = erro;
+        job.concluidoEm = Instant.now();
+        job.status = ImportacaoResponse.Status.ERRO;
+    }
+
+    private static String chaveCategoria(String nome) {
+        return LeitorExtrato.semAcento(nome).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static <K, V> Map<K, V> ultimosVistos(int maximo) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> maisAntigo) {
+                return size() > maximo;
+            }
+        };
+    }
+
+    private static byte[] sha256(String texto) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(texto.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record LinhaImportada(LocalDate data, BigDecimal valor, Transacao.TipoTransacao tipo,
+                                  String descricao, Long categoriaId, String hash) {}
+
+    /** Conta os bytes lidos do arquivo para o progresso. */
+    private static final class Contador extends FilterInputStream {
+        private final Job job;
+
+        Contador(InputStream in, Job job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                job.bytesLidos++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                job.bytesLidos += n;
+            }
+            return n;
+        }
+    }
+
+    private static final class Job {
+        final String id;
+        final Long usuarioId;
+        final ImportacaoResponse.Formato formato;
+        final String nomeArquivo;
+        final Long categoriaPadraoId;
+        final Charset charset;
+        final Instant criadoEm = Instant.now();
+        final List<String> erros = new CopyOnWriteArrayList<>();
+        // Escritos só pela thread da importação; volatile para a leitura do status
+        volatile long bytesLidos;
+        volatile long bytesTotal;
+        volatile long linhasLidas;
+        volatile long importadas;
+        volatile long duplicadas;
+        volatile long rejeitadas;
+        volatile ImportacaoResponse.Status status = ImportacaoResponse.Status.NA_FILA;
+        volatile Path arquivo;
+        volatile String erro;
+        volatile Instant concluidoEm;
+        volatile Instant expiraEm;
+
+        Job(String id, Long usuarioId, ImportacaoResponse.Formato formato, String nomeArquivo,
+            Long categoriaPadraoId, Charset charset) {
+            this.id = id;
+            this.usuarioId = usuarioId;
+            this.formato = formato;
+            this.nomeArquivo = nomeArquivo;
+            this.categoriaPadraoId = categoriaPadraoId;
+            this.charset = charset;
+        }
+
+        ImportacaoResponse toResponse() {
+            int progresso;
+            if (status == ImportacaoResponse.Status.CONCLUIDO) {
+                progresso = 100;
+            } else if (bytesTotal > 0) {
+                progresso = (int) Math.min(99, bytesLidos * 100 / bytesTotal);
+            } else {
+                progresso = 0;
+            }
+            return ImportacaoResponse.builder()
+                    .id(id)
+                    .formato(formato)
+                    .nomeArquivo(nomeArquivo)
+                    .status(status)
+                    .bytesLidos(bytesLidos)
+                    .bytesTotal(bytesTotal)
+                    .progresso(progresso)
+                    .linhasLidas(linhasLidas)
+                    .importadas(importadas)
+                    .duplicadas(duplicadas)
+                    .rejeitadas(rejeitadas)
+                    .erros(List.copyOf(erros))
+                    .erro(erro)
+                    .criadoEm(criadoEm)
+                    .concluidoEm(concluidoEm)
+                    .expiraEm(expiraEm)
+                    .build();
+        }
+    }
+}
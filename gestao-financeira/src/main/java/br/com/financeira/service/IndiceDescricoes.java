@@ -0,0 +1,331 @@
+package br.com.financeira.service;
+
+import br.com.financeira.repository.DescricaoTransacao;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido em memória das descrições das transações, um por usuário.
+ * <p>
+ * As palavras são normalizadas sem acento e em minúsculas ("Mercadão" e "mercadao" são o mesmo termo) e
+ * ficam ordenadas, então cada palavra da busca casa por prefixo ("merc" acha "mercado" e "mercadinho").
+ * O índice de um usuário é montado na primeira busca, com uma leitura de (id, data, descrição), e depois
+ * mantido pelas escritas via {@link DescricoesAlteradasEvent}. O cache é limitado pelo total de transações
+ * indexadas ({@code busca.indice.max-transacoes}, o peso de cada índice é o número de transações dele), não pelo
+ * número de usuários: um usuário com histórico enorme ocupa o espaço de muitos pequenos. Métricas em cache.* com
+ * {@code cache=busca.descricoes}.
+ * <p>
+ * Palavras de uma letra não são indexadas; consultas com elas ficam com o LIKE do banco (ver {@link #atende}).
+ */
+@Component
+public class IndiceDescricoes {
+
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}");
+    private static final Set<String> IGNORADAS = Set.of(
+            "de", "da", "do", "das", "dos", "em", "na", "no", "nas", "nos", "para", "pra", "por", "com", "um", "uma");
+
+    private final Cache<Long, IndiceUsuario> indices;
+
+    /** Contador de alterações por usuário, para descartar um índice montado enquanto houve escrita. */
+    private final Map<Long, AtomicLong> geracoes = new ConcurrentHashMap<>();
+
+    public IndiceDescricoes(@Value("${busca.indice.max-transacoes:200000}") long maxTransacoes,
+                            @Value("${busca.indice.ttl-minutos:60}") long ttlMinutos,
+                            MeterRegistry meterRegistry) {
+        this.indices = Caffeine.newBuilder()
+                .maximumWeight(maxTransacoes)
+                .weigher((Long usuarioId, IndiceUsuario indice) -> Math.max(1, indice.tamanho))
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indices, "busca.descricoes");
+    }
+
+    /**
+     * Ids das transações cuja descrição tem todas as palavras da consulta (cada uma como prefixo),
+     * mais recentes primeiro.
+     *
+     * @param carregar leitura de todas as descrições do usuário, usada só se o índice ainda não estiver montado
+     */
+    public List<Long> buscar(Long usuarioId, String consulta, int limite,
+                             Supplier<Stream<DescricaoTransacao>> carregar) {
+        List<String> termos = new ArrayList<>();
+        for (String palavra : palavras(consulta)) {
+            termos.add(normalizar(palavra));
+        }
+        if (termos.isEmpty()) {
+            return List.of();
+        }
+        return obter(usuarioId, carregar).buscar(termos, limite);
+    }
+
+    /**
+     * False se a consulta tem palavra de uma letra (não indexada) ou só palavras ignoradas ("de", "para"...):
+     * o índice não acharia nada e a busca deve ir para o banco.
+     */
+    public boolean atende(String consulta) {
+        boolean temTermo = false;
+        for (String p : SEPARADOR.split(consulta)) {
+            if (p.isEmpty()) {
+                continue;
+            }
+            if (p.length() < 2) {
+                return false;
+            }
+            temTermo |= !IGNORADAS.contains(normalizar(p));
+        }
+        return temTermo;
+    }
+
+    /**
+     * Palavras do usuário que começam com {@code prefixo}, das mais usadas para as menos, na grafia original.
+     */
+    public List<String> sugerir(Long usuarioId, String prefixo, int limite,
+                                Supplier<Stream<DescricaoTransacao>> carregar) {
+        String p = normalizar(prefixo.trim());
+        if (p.isEmpty()) {
+            return List.of();
+        }
+        return obter(usuarioId, carregar).sugerir(p, limite);
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarDescricoes(DescricoesAlteradasEvent evento) {
+        geracoes.computeIfAbsent(evento.usuarioId(), id -> new AtomicLong()).incrementAndGet();
+        if (evento.gravadas() == null) {
+            indices.invalidate(evento.usuarioId());
+            return;
+        }
+        IndiceUsuario indice = indices.getIfPresent(evento.usuarioId());
+        if (indice == null) {
+            return;
+        }
+        indice.aplicar(evento.gravadas(), evento.removidas());
+        // O Caffeine só recalcula o peso ao gravar a entrada de novo
+        indices.asMap().replace(evento.usuarioId(), indice, indice);
+    }
+
+    /**
+     * Montagem fora do cache (como no RelatorioCache): o {@code cache.get(chave, função)} do Caffeine
+     * seguraria um lock do ConcurrentHashMap durante a leitura do banco.
+     */
+    private IndiceUsuario obter(Long usuarioId, Supplier<Stream<DescricaoTransacao>> carregar) {
+        IndiceUsuario indice = indices.getIfPresent(usuarioId);
+        if (indice != null) {
+            return indice;
+        }
+        AtomicLong geracao = geracoes.computeIfAbsent(usuarioId, id -> new AtomicLong());
+        long antes = geracao.get();
+        IndiceUsuario novo = new IndiceUsuario();
+        try (Stream<DescricaoTransacao> descricoes = carregar.get()) {
+            novo.aplicar(descricoes::iterator, Set.of());
+        }
+        indices.put(usuarioId, novo);
+        if (geracao.get() != antes) {
+            indices.invalidate(usuarioId);
+        }
+        return novo;
+    }
+
+    private static List<String> palavras(String texto) {
+        List<String> palavras = new ArrayList<>();
+        if (texto == null) {
+            return palavras;
+        }
+        for (String p : SEPARADOR.split(texto)) {
+            if (p.length() >= 2 && !IGNORADAS.contains(normalizar(p))) {
+                palavras.add(p);
+            }
+        }
+        return palavras;
+    }
+
+    static String normalizar(String palavra) {
+        String semAcento = ACENTOS.matcher(Normalizer.normalize(palavra, Normalizer.Form.NFD)).replaceAll("");
+        return semAcento.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class IndiceUsuario {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        /** termo normalizado -> ids das transações que o contêm */
+        private final TreeMap<String, Set<Long>> ocorrencias = new TreeMap<>();
+        /** termo normalizado -> grafia com que apareceu pela primeira vez (para as sugestões) */
+        private final Map<String, String> grafias = new HashMap<>();
+        private final Map<Long, Entrada> entradas = new HashMap<>();
+        /** entradas.size() no fim do último {@link #aplicar}, lido pelo weigher do cache sem pegar o lock */
+        private volatile int tamanho;
+
+        private record Entrada(long dia, Set<String> termos) {}
+
+        void aplicar(Iterable<DescricaoTransacao> gravadas, Set<Long> removidas) {
+            lock.writeLock().lock();
+            try {
+                for (Long id : removidas) {
+                    remover(id);
+                }
+                for (DescricaoTransacao d : gravadas) {
+                    remover(d.id());
+                    Set<String> termos = new HashSet<>();
+                    for (String palavra : palavras(d.descricao())) {
+                        String termo = normalizar(palavra);
+                        if (termos.add(termo)) {
+                            ocorrencias.computeIfAbsent(termo, t -> new HashSet<>()).add(d.id());
+                            grafias.putIfAbsent(termo, palavra.toLowerCase(Locale.ROOT));
+                        }
+                    }
+                    entradas.put(d.id(), new Entrada(d.data().toEpochDay(), termos));
+                }
+                tamanho = entradas.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void remover(Long id) {
+            Entrada anterior = entradas.remove(id);
+            if (anterior == null) {
+                return;
+            }
+            for (String termo : anterior.termos()) {
+                Set<Long> ids = ocorrencias.get(termo);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        ocorrencias.remove(termo);
+                        grafias.remove(termo);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Sem montar a união dos ids de cada prefixo: percorre só as ocorrências do prefixo mais seletivo e confere
+         * os demais nos termos da própria transação. Memória extra limitada a {@code limite} ids.
+         */
+        List<Long> buscar(List<String> prefixos, int limite) {
+            lock.readLock().lock();
+            try {
+                String guia = null;
+                long menor = Long.MAX_VALUE;
+                for (String prefixo : prefixos) {
+                    long total = 0;
+                    for (Set<Long> ids : comPrefixo(prefixo).values()) {
+                        total += ids.size();
+                    }
+                    if (total == 0) {
+                        return List.of();
+                    }
+                    if (total < menor) {
+                        menor = total;
+                        guia = prefixo;
+                    }
+                }
+                Comparator<Long> maisRecente = Comparator.comparingLong((Long id) -> entradas.get(id).dia())
+                        .thenComparingLong(id -> id);
+                PriorityQueue<Long> melhores = new PriorityQueue<>(limite + 1, maisRecente);
+                for (Map.Entry<String, Set<Long>> ocorrencia : comPrefixo(guia).entrySet()) {
+                    for (Long id : ocorrencia.getValue()) {
+                        Set<String> termos = entradas.get(id).termos();
+                        // Transação com mais de um termo do prefixo guia entra só pelo menor deles
+                        if (jaVisitada(termos, guia, ocorrencia.getKey()) || !temTodos(termos, prefixos)) {
+                            continue;
+                        }
+                        melhores.add(id);
+                        if (melhores.size() > limite) {
+                            melhores.poll();
+                        }
+                    }
+                }
+                List<Long> resultado = new ArrayList<>(melhores);
+                resultado.sort(maisRecente.reversed());
+                return resultado;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<String> sugerir(String prefixo, int limite) {
+            lock.readLock().lock();
+            try {
+                // Só os `limite` termos mais usados ficam na fila, não a faixa inteira do prefixo
+                Comparator<Map.Entry<String, Set<Long>>> maisUsado =
+                        Comparator.comparingInt((Map.Entry<String, Set<Long>> e) -> e.getValue().size())
+                                .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+                PriorityQueue<Map.Entry<String, Set<Long>>> melhores = new PriorityQueue<>(limite + 1, maisUsado);
+                for (Map.Entry<String, Set<Long>> termo : comPrefixo(prefixo).entrySet()) {
+                    melhores.add(termo);
+                    if (melhores.size() > limite) {
+                        melhores.poll();
+                    }
+                }
+                List<Map.Entry<String, Set<Long>>> termos = new ArrayList<>(melhores);
+                termos.sort(maisUsado.reversed());
+                List<String> sugestoes = new ArrayList<>(termos.size());
+                for (Map.Entry<String, Set<Long>> termo : termos) {
+                    sugestoes.add(grafias.get(termo.getKey()));
+                }
+                return sugestoes;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /** Termos que começam com {@code prefixo} (vista do TreeMap, sem cópia). */
+        private NavigableMap<String, Set<Long>> comPrefixo(String prefixo) {
+            return ocorrencias.subMap(prefixo, true, prefixo + Character.MAX_VALUE, true);
+        }
+
+        /** True se a transação tem um termo do prefixo guia anterior a {@code atual} (já foi conferida por ele). */
+        private static boolean jaVisitada(Set<String> termos, String guia, String atual) {
+            for (String termo : termos) {
+                if (termo.startsWith(guia) && termo.compareTo(atual) < 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean temTodos(Set<String> termos, List<String> prefixos) {
+            for (String prefixo : prefixos) {
+                boolean achou = false;
+                for (String termo : termos) {
+                    if (termo.startsWith(prefixo)) {
+                        achou = true;
+                        break;
+                    }
+                }
+                if (!achou) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
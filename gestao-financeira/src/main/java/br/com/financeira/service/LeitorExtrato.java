@@ -0,0 +1,79 @@
+package br.com.financeira.service;
+
+import br.com.financeira.entity.Transacao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Lê um extrato bancário linha a linha, sem carregar o arquivo inteiro.
+ */
+interface LeitorExtrato extends Closeable {
+
+    /** Próxima transação do arquivo, ou null no fim. */
+    LinhaExtrato proxima() throws IOException;
+
+    DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /** Aceita 2024-01-31, 31/01/2024 e 20240131 (com ou sem hora depois, como no OFX). */
+    static LocalDate data(String texto) {
+        String t = texto.trim();
+        try {
+            if (t.length() >= 10 && t.charAt(4) == '-') {
+                return LocalDate.parse(t.substring(0, 10));
+            }
+            if (t.length() >= 10 && t.charAt(2) == '/') {
+                return LocalDate.parse(t.substring(0, 10), DATA_BR);
+            }
+            if (t.length() >= 8) {
+                return LocalDate.parse(t.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+            }
+        } catch (DateTimeParseException | StringIndexOutOfBoundsException e) {
+            // cai no erro abaixo
+        }
+        throw new IllegalArgumentException("data inválida: " + texto);
+    }
+
+    /** Aceita 1234.56, 1.234,56, 1234,56, -10,00, (10,00) e "R$ 10,00". */
+    static BigDecimal valor(String texto) {
+        String t = texto.trim().replace("R$", "").replace(" ", "");
+        boolean negativo = false;
+        if (t.startsWith("(") && t.endsWith(")")) {
+            negativo = true;
+            t = t.substring(1, t.length() - 1);
+        }
+        int virgula = t.lastIndexOf(',');
+        int ponto = t.lastIndexOf('.');
+        if (virgula >= 0 && ponto >= 0) {
+            t = virgula > ponto ? t.replace(".", "").replace(',', '.') : t.replace(",", "");
+        } else if (virgula >= 0) {
+            t = t.replace(',', '.');
+        }
+        try {
+            BigDecimal v = new BigDecimal(t);
+            return negativo ? v.negate() : v;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("valor inválido: " + texto);
+        }
+    }
+
+    /** ENTRADA/SAIDA, C/D, crédito/débito; null se não reconhecer. */
+    static Transacao.TipoTransacao tipo(String texto) {
+        String t = semAcento(texto).trim().toUpperCase(Locale.ROOT);
+        return switch (t) {
+            case "ENTRADA", "C", "CREDITO", "CREDIT" -> Transacao.TipoTransacao.ENTRADA;
+            case "SAIDA", "D", "DEBITO", "DEBIT" -> Transacao.TipoTransacao.SAIDA;
+            default -> null;
+        };
+    }
+
+    static String semAcento(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+}
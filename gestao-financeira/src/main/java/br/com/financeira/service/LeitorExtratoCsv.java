@@ -0,0 +1,135 @@
+package br.com.financeira.service;
+
+import br.com.financeira.entity.Transacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * CSV com cabeçalho, separado por {@code ;} ou {@code ,} (detectado pelo cabeçalho). Colunas reconhecidas:
+ * data e valor (obrigatórias), descricao/historico, tipo e categoria. Sem coluna tipo, valor negativo é saída.
+ */
+class LeitorExtratoCsv implements LeitorExtrato {
+
+    private final BufferedReader reader;
+    private char separador;
+    private int colData = -1;
+    private int colValor = -1;
+    private int colDescricao = -1;
+    private int colTipo = -1;
+    private int colCategoria = -1;
+    private long numero;
+
+    LeitorExtratoCsv(Reader reader) {
+        this.reader = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+    }
+
+    @Override
+    public LinhaExtrato proxima() throws IOException {
+        if (numero == 0) {
+            lerCabecalho();
+        }
+        String linha;
+        do {
+            linha = reader.readLine();
+            numero++;
+            if (linha == null) {
+                return null;
+            }
+        } while (linha.isBlank());
+        try {
+            List<String> campos = campos(linha);
+            LocalDate data = LeitorExtrato.data(campo(campos, colData, "data"));
+            BigDecimal valor = LeitorExtrato.valor(campo(campos, colValor, "valor"));
+            Transacao.TipoTransacao tipo = null;
+            if (colTipo >= 0 && colTipo < campos.size() && !campos.get(colTipo).isBlank()) {
+                tipo = LeitorExtrato.tipo(campos.get(colTipo));
+                if (tipo == null) {
+                    throw new IllegalArgumentException("tipo inválido: " + campos.get(colTipo));
+                }
+            }
+            String descricao = colDescricao >= 0 && colDescricao < campos.size() ? campos.get(colDescricao).trim() : null;
+            String categoria = colCategoria >= 0 && colCategoria < campos.size() ? campos.get(colCategoria).trim() : null;
+            return new LinhaExtrato(numero, data, valor, tipo, descricao, categoria, null);
+        } catch (IllegalArgumentException e) {
+            return LinhaExtrato.invalida(numero, e.getMessage());
+        }
+    }
+
+    private void lerCabecalho() throws IOException {
+        String cabecalho = reader.readLine();
+        numero = 1;
+        if (cabecalho == null) {
+            throw new IllegalArgumentException("Arquivo CSV vazio");
+        }
+        if (cabecalho.startsWith("\uFEFF")) {
+            cabecalho = cabecalho.substring(1);
+        }
+        separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+        List<String> nomes = campos(cabecalho);
+        for (int i = 0; i < nomes.size(); i++) {
+            String nome = LeitorExtrato.semAcento(nomes.get(i)).trim().toLowerCase(Locale.ROOT);
+            switch (nome) {
+                case "data" -> colData = i;
+                case "valor" -> colValor = i;
+                case "descricao", "historico", "memo" -> colDescricao = i;
+                case "tipo" -> colTipo = i;
+                case "categoria" -> colCategoria = i;
+                default -> { }
+            }
+        }
+        if (colData < 0 || colValor < 0) {
+            throw new IllegalArgumentException("Cabeçalho do CSV precisa das colunas data e valor");
+        }
+    }
+
+    private static String campo(List<String> campos, int indice, String nome) {
+        if (indice >= campos.size() || campos.get(indice).isBlank()) {
+            throw new IllegalArgumentException(nome + " ausente");
+        }
+        return campos.get(indice);
+    }
+
+    /** Divide uma linha respeitando aspas ("a;b" e "" dentro de aspas). */
+    private List<String> campos(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("aspas não fechadas");
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.financeira.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * OFX (SGML do OFX 1.x ou XML do 2.x) lido tag a tag: cada bloco {@code <STMTTRN>} vira uma linha.
+ * Usa DTPOSTED, TRNAMT (com sinal) e MEMO (ou NAME) como descrição. O cabeçalho antes de {@code <OFX>} é ignorado.
+ */
+class LeitorExtratoOfx implements LeitorExtrato {
+
+    private final BufferedReader reader;
+    private long numero;
+
+    LeitorExtratoOfx(Reader reader) {
+        this.reader = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+    }
+
+    @Override
+    public LinhaExtrato proxima() throws IOException {
+        String tag;
+        while ((tag = proximaTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                numero++;
+                return lerTransacao();
+            }
+        }
+        return null;
+    }
+
+    private LinhaExtrato lerTransacao() throws IOException {
+        String data = null;
+        String valor = null;
+        String memo = null;
+        String nome = null;
+        String tag;
+        while ((tag = proximaTag()) != null && !tag.equals("/STMTTRN")) {
+            String texto = lerTexto();
+            switch (tag) {
+                case "DTPOSTED" -> data = texto;
+                case "TRNAMT" -> valor = texto;
+                case "MEMO" -> memo = texto;
+                case "NAME" -> nome = texto;
+                default -> { }
+            }
+        }
+        try {
+            if (data == null || data.isEmpty()) {
+                throw new IllegalArgumentException("DTPOSTED ausente");
+            }
+            if (valor == null || valor.isEmpty()) {
+                throw new IllegalArgumentException("TRNAMT ausente");
+            }
+            LocalDate d = LeitorExtrato.data(data);
+            BigDecimal v = LeitorExtrato.valor(valor);
+            String descricao = memo != null && !memo.isEmpty() ? memo : nome;
+            return new LinhaExtrato(numero, d, v, null, descricao, null, null);
+        } catch (IllegalArgumentException e) {
+            return LinhaExtrato.invalida(numero, e.getMessage());
+        }
+    }
+
+    /** Avança até o próximo {@code <TAG>} e devolve o nome em maiúsculas (com "/" se for de fechamento). */
+    private String proximaTag() throws IOException {
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            // texto solto entre tags
+        }
+        if (c == -1) {
+            return null;
+        }
+        StringBuilder nome = new StringBuilder();
+        while ((c = reader.read()) != -1 && c != '>') {
+            nome.append((char) c);
+        }
+        return nome.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** Lê o valor de um elemento até o próximo {@code <}, sem consumi-lo. */
+    private String lerTexto() throws IOException {
+        StringBuilder texto = new StringBuilder();
+        while (true) {
+            reader.mark(1);
+            int c = reader.read();
+            if (c == -1) {
+                break;
+            }
+            if (c == '<') {
+                reader.reset();
+                break;
+            }
+            texto.append((char) c);
+        }
+        return decodificar(texto.toString().trim());
+    }
+
+    private static String decodificar(String texto) {
+        if (texto.indexOf('&') < 0) {
+            return texto;
+        }
+        return texto.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.financeira.service;
+
+import br.com.financeira.entity.Transacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Uma linha lida de um extrato. {@code valor} vem com sinal (negativo = saída) quando o arquivo não traz o tipo;
+ * {@code erro} preenchido quando a linha não pôde ser interpretada.
+ */
+record LinhaExtrato(long numero, LocalDate data, BigDecimal valor, Transacao.TipoTransacao tipo,
+                    String descricao, String categoria, String erro) {
+
+    static LinhaExtrato invalida(long numero, String erro) {
+        return new LinhaExtrato(numero, null, null, null, null, null, erro);
+    }
+}
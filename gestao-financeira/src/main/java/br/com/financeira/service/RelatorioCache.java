@@ -0,0 +1,80 @@
+package br.com.financeira.service;
+
+import br.com.financeira.dto.RelatorioMensalResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória dos totais do relatório mensal (sem a lista de transações), por (usuário, ano, mês).
+ * Limitado por quantidade e por tempo; as escritas invalidam só os meses afetados, depois do commit.
+ * Métricas (acertos, faltas, remoções) em /actuator/metrics/cache.* com {@code cache=relatorios.mensal}.
+ */
+@Component
+public class RelatorioCache {
+
+    private final Cache<Chave, RelatorioMensalResponse> cache;
+
+    /** Contador de invalidações por usuário, para descartar um resumo calculado enquanto houve escrita. */
+    private final Map<Long, AtomicLong> geracoes = new ConcurrentHashMap<>();
+
+    public RelatorioCache(@Value("${relatorios.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                          @Value("${relatorios.cache.ttl-minutos:10}") long ttlMinutos,
+                          MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "relatorios.mensal");
+    }
+
+    /**
+     * Devolve o resumo do mês em cache ou calcula com {@code carregar}. O objeto devolvido é compartilhado
+     * entre requisições e não deve ser alterado.
+     * <p>
+     * A consulta roda fora do cache (não dentro de {@code cache.get(chave, função)}, que segura um lock do
+     * ConcurrentHashMap e prenderia a thread portadora de uma thread virtual durante o JDBC). Se houver
+     * invalidação do usuário enquanto calcula, o valor recém-gravado é descartado.
+     */
+    public RelatorioMensalResponse obter(Long usuarioId, int ano, int mes, Supplier<RelatorioMensalResponse> carregar) {
+        Chave chave = new Chave(usuarioId, ano, mes);
+        RelatorioMensalResponse resumo = cache.getIfPresent(chave);
+        if (resumo != null) {
+            return resumo;
+        }
+        AtomicLong geracao = geracoes.computeIfAbsent(usuarioId, id -> new AtomicLong());
+        long antes = geracao.get();
+        resumo = carregar.get();
+        cache.put(chave, resumo);
+        if (geracao.get() != antes) {
+            cache.invalidate(chave);
+        }
+        return resumo;
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarDados(DadosAlteradosEvent evento) {
+        geracoes.computeIfAbsent(evento.usuarioId(), id -> new AtomicLong()).incrementAndGet();
+        if (evento.meses() == null) {
+            cache.asMap().keySet().removeIf(k -> k.usuarioId().equals(evento.usuarioId()));
+            return;
+        }
+        for (YearMonth ym : evento.meses()) {
+            cache.invalidate(new Chave(evento.usuarioId(), ym.getYear(), ym.getMonthValue()));
+        }
+    }
+
+    private record Chave(Long usuarioId, int ano, int mes) {}
+}
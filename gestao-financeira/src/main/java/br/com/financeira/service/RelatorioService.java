@@ -1,63 +1,203 @@
 package br.com.financeira.service;
 
 import br.com.financeira.dto.RelatorioMensalResponse;
+import br.com.financeira.dto.RelatorioPeriodoResponse;
 import br.com.financeira.dto.TransacaoResponse;
 import br.com.financeira.entity.Transacao;
+import br.com.financeira.repository.ResumoMensalRepository;
+import br.com.financeira.repository.TotalMensalPorCategoria;
+import br.com.financeira.repository.TotalPorCategoria;
 import br.com.financeira.repository.TransacaoRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class RelatorioService {
 
     private final TransacaoRepository transacaoRepository;
-    private final TransacaoService transacaoService;
+    private final ResumoMensalRepository resumoMensalRepository;
+    private final RelatorioCache relatorioCache;
+
+    @Value("${relatorios.periodo.max-meses:120}")
+    private int maxMesesPeriodo;
+
+    @Value("${exportacao.bloco:1000}")
+    private int tamanhoBlocoExportacao;
 
-    @Transactional(readOnly = true)
     public RelatorioMensalResponse relatorioMensal(Long usuarioId, int ano, int mes) {
+        return relatorioMensal(usuarioId, ano, mes, true);
+    }
+
+    /**
+     * Totais e resumo por categoria saem da tabela resumos_mensais (uma linha por categoria/tipo do mês)
+     * e ficam no {@link RelatorioCache}; a lista de transações nunca é cacheada e só é buscada quando
+     * {@code incluirTransacoes} é true (senão fica null na resposta).
+     */
+    public RelatorioMensalResponse relatorioMensal(Long usuarioId, int ano, int mes, boolean incluirTransacoes) {
+        validarMes(ano, mes);
+        RelatorioMensalResponse resumo = relatorioCache.obter(usuarioId, ano, mes,
+                () -> calcularResumoMensal(usuarioId, ano, mes));
+        if (!incluirTransacoes) {
+            return resumo;
+        }
         LocalDate inicio = LocalDate.of(ano, mes, 1);
         LocalDate fim = inicio.withDayOfMonth(inicio.lengthOfMonth());
+        return RelatorioMensalResponse.builder()
+                .ano(resumo.getAno())
+                .mes(resumo.getMes())
+                .totalEntradas(resumo.getTotalEntradas())
+                .totalSaidas(resumo.getTotalSaidas())
+                .saldo(resumo.getSaldo())
+                .porCategoria(resumo.getPorCategoria())
+                .transacoes(transacaoRepository.listarPorUsuarioEPeriodo(usuarioId, inicio, fim))
+                .build();
+    }
 
-        List<Transacao> transacoes = transacaoRepository.findByUsuarioIdAndDataBetween(usuarioId, inicio, fim);
-
-        BigDecimal totalEntradas = transacaoRepository.somarPorUsuarioTipoEPeriodo(
-                usuarioId, Transacao.TipoTransacao.ENTRADA, inicio, fim);
-        BigDecimal totalSaidas = transacaoRepository.somarPorUsuarioTipoEPeriodo(
-                usuarioId, Transacao.TipoTransacao.SAIDA, inicio, fim);
-        BigDecimal saldo = totalEntradas.subtract(totalSaidas);
-
-        List<RelatorioMensalResponse.ResumoPorCategoria> porCategoria = transacoes.stream()
-                .collect(Collectors.groupingBy(t -> new CatKey(t.getCategoria().getId(), t.getCategoria().getNome(), t.getTipo())))
-                .entrySet().stream()
-                .map(e -> RelatorioMensalResponse.ResumoPorCategoria.builder()
-                        .categoriaId(e.getKey().id)
-                        .categoriaNome(e.getKey().nome)
-                        .tipo(e.getKey().tipo.name())
-                        .total(e.getValue().stream().map(Transacao::getValor).reduce(BigDecimal.ZERO, BigDecimal::add))
-                        .build())
-                .collect(Collectors.toList());
-
-        List<TransacaoResponse> transacoesResponse = transacoes.stream()
-                .map(transacaoService::toResponsePublic)
-                .collect(Collectors.toList());
+    private RelatorioMensalResponse calcularResumoMensal(Long usuarioId, int ano, int mes) {
+        List<TotalPorCategoria> totais = resumoMensalRepository.totaisDoMes(usuarioId, ano, mes);
+
+        BigDecimal totalEntradas = BigDecimal.ZERO;
+        BigDecimal totalSaidas = BigDecimal.ZERO;
+        List<RelatorioMensalResponse.ResumoPorCategoria> porCategoria = new ArrayList<>(totais.size());
+        for (TotalPorCategoria t : totais) {
+            if (t.tipo() == Transacao.TipoTransacao.ENTRADA) {
+                totalEntradas = totalEntradas.add(t.total());
+            } else {
+                totalSaidas = totalSaidas.add(t.total());
+            }
+            porCategoria.add(RelatorioMensalResponse.ResumoPorCategoria.builder()
+                    .categoriaId(t.categoriaId())
+                    .categoriaNome(t.categoriaNome())
+                    .tipo(t.tipo().name())
+                    .total(t.total())
+                    .quantidade(t.quantidade())
+                    .build());
+        }
 
         return RelatorioMensalResponse.builder()
                 .ano(ano)
                 .mes(mes)
-                .totalEntradas(totalEntradas != null ? totalEntradas : BigDecimal.ZERO)
-                .totalSaidas(totalSaidas != null ? totalSaidas : BigDecimal.ZERO)
-                .saldo(saldo != null ? saldo : BigDecimal.ZERO)
-                .porCategoria(porCategoria)
-                .transacoes(transacoesResponse)
+                .totalEntradas(totalEntradas)
+                .totalSaidas(totalSaidas)
+                .saldo(totalEntradas.subtract(totalSaidas))
+                .porCategoria(List.copyOf(porCategoria))
+                .build();
+    }
+
+    /**
+     * Transações do mês para exportação, na ordem do relatório (data DESC, id DESC), lidas sob demanda em blocos de
+     * {@code exportacao.bloco} por keyset. Cada bloco é uma consulta curta com transação própria: a conexão volta
+     * para o pool entre um bloco e outro, então um cliente lento baixando o arquivo não segura conexão do banco.
+     * Uma transação gravada durante a exportação pode ficar de fora, mas nenhuma sai repetida.
+     */
+    public Stream<TransacaoResponse> transacoesDoMes(Long usuarioId, int ano, int mes) {
+        LocalDate inicio = validarMes(ano, mes).atDay(1);
+        LocalDate fim = inicio.withDayOfMonth(inicio.lengthOfMonth());
+        PageRequest bloco = PageRequest.of(0, tamanhoBlocoExportacao);
+        // Posição inicial depois do fim do mês: o primeiro bloco começa pela transação mais recente
+        List<TransacaoResponse> primeiro = transacaoRepository.blocoDoPeriodoApos(usuarioId, inicio, fim,
+                fim.plusDays(1), Long.MAX_VALUE, bloco);
+        return Stream.iterate(primeiro, b -> !b.isEmpty(), b -> {
+                    if (b.size() < tamanhoBlocoExportacao) {
+                        return List.of();
+                    }
+                    TransacaoResponse ultima = b.get(b.size() - 1);
+                    return transacaoRepository.blocoDoPeriodoApos(usuarioId, inicio, fim,
+                            ultima.getData(), ultima.getId(), bloco);
+                })
+                .flatMap(List::stream);
+    }
+
+    /**
+     * Totais mês a mês de um intervalo (inclusive nas duas pontas), com uma única query em resumos_mensais.
+     * Meses sem movimento aparecem zerados para o gráfico não ter buracos.
+     */
+    @Transactional(readOnly = true)
+    public RelatorioPeriodoResponse relatorioPeriodo(Long usuarioId, int anoInicio, int mesInicio, int anoFim, int mesFim) {
+        YearMonth inicio = validarMes(anoInicio, mesInicio);
+        YearMonth fim = validarMes(anoFim, mesFim);
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("O fim do período deve ser igual ou posterior ao início");
+        }
+        if (ChronoUnit.MONTHS.between(inicio, fim) + 1 > maxMesesPeriodo) {
+            throw new IllegalArgumentException("O período pode ter no máximo " + maxMesesPeriodo + " meses");
+        }
+
+        Map<YearMonth, List<TotalMensalPorCategoria>> porMes = new LinkedHashMap<>();
+        for (YearMonth ym = inicio; !ym.isAfter(fim); ym = ym.plusMonths(1)) {
+            porMes.put(ym, new ArrayList<>());
+        }
+        for (TotalMensalPorCategoria t : resumoMensalRepository.totaisDoPeriodo(usuarioId, anoInicio, mesInicio, anoFim, mesFim)) {
+            porMes.get(YearMonth.of(t.ano(), t.mes())).add(t);
+        }
+
+        BigDecimal totalEntradas = BigDecimal.ZERO;
+        BigDecimal totalSaidas = BigDecimal.ZERO;
+        List<RelatorioPeriodoResponse.ResumoMes> meses = new ArrayList<>(porMes.size());
+        for (Map.Entry<YearMonth, List<TotalMensalPorCategoria>> e : porMes.entrySet()) {
+            BigDecimal entradas = BigDecimal.ZERO;
+            BigDecimal saidas = BigDecimal.ZERO;
+            List<RelatorioMensalResponse.ResumoPorCategoria> porCategoria = new ArrayList<>(e.getValue().size());
+            for (TotalMensalPorCategoria t : e.getValue()) {
+                if (t.tipo() == Transacao.TipoTransacao.ENTRADA) {
+                    entradas = entradas.add(t.total());
+                } else {
+                    saidas = saidas.add(t.total());
+                }
+                porCategoria.add(RelatorioMensalResponse.ResumoPorCategoria.builder()
+                        .categoriaId(t.categoriaId())
+                        .categoriaNome(t.categoriaNome())
+                        .tipo(t.tipo().name())
+                        .total(t.total())
+                        .quantidade(t.quantidade())
+                        .build());
+            }
+            totalEntradas = totalEntradas.add(entradas);
+            totalSaidas = totalSaidas.add(saidas);
+            meses.add(RelatorioPeriodoResponse.ResumoMes.builder()
+                    .ano(e.getKey().getYear())
+                    .mes(e.getKey().getMonthValue())
+                    .totalEntradas(entradas)
+                    .totalSaidas(saidas)
+                    .saldo(entradas.subtract(saidas))
+                    .porCategoria(porCategoria)
+                    .build());
+        }
+
+        return RelatorioPeriodoResponse.builder()
+                .anoInicio(anoInicio)
+                .mesInicio(mesInicio)
+                .anoFim(anoFim)
+                .mesFim(mesFim)
+                .totalEntradas(totalEntradas)
+                .totalSaidas(totalSaidas)
+                .saldo(totalEntradas.subtract(totalSaidas))
+                .meses(meses)
                 .build();
     }
 
-    private record CatKey(Long id, String nome, Transacao.TipoTransacao tipo) {}
+    /** Ano e mês vêm da URL: fora da faixa é erro do cliente (400), não DateTimeException (500). */
+    private static YearMonth validarMes(int ano, int mes) {
+        if (mes < 1 || mes > 12) {
+            throw new IllegalArgumentException("Mês deve estar entre 1 e 12");
+        }
+        if (ano < 1900 || ano > 9999) {
+            throw new IllegalArgumentException("Ano deve estar entre 1900 e 9999");
+        }
+        return YearMonth.of(ano, mes);
+    }
 }
@@ -0,0 +1,170 @@
+package br.com.financeira.service;
+
+import br.com.financeira.dto.VerificacaoResumoResponse;
+import br.com.financeira.entity.ResumoMensal;
+import br.com.financeira.entity.Transacao;
+import br.com.financeira.repository.CategoriaRepository;
+import br.com.financeira.repository.RelatorioRepository;
+import br.com.financeira.repository.ResumoMensalRepository;
+import br.com.financeira.repository.TotalMensalPorCategoria;
+import br.com.financeira.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mantém a tabela resumos_mensais (soma e quantidade por usuário, mês, categoria e tipo).
+ * As escritas de transação chamam {@link #registrar} dentro da própria transação, então
+ * o resumo nunca fica visível fora de sincronia com as linhas de {@code transacoes}.
+ * <p>
+ * Antes de ler ou gravar transações, as escritas travam a linha do usuário ({@link #travarUsuario}); a correção
+ * de {@link #verificar} também. Assim as escritas de um mesmo usuário não se cruzam com a correção.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResumoMensalService {
+
+    private final ResumoMensalRepository resumoMensalRepository;
+    private final RelatorioRepository relatorioRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Trava a linha do usuário ({@code SELECT ... FOR UPDATE}) até o fim da transação. Chamar antes de ler ou
+     * gravar as transações do usuário.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void travarUsuario(Long usuarioId) {
+        usuarioRepository.travar(usuarioId);
+    }
+
+    /**
+     * Aplica um delta ao bucket do mês de {@code data}. Para remover uma transação use valor e quantidade negativos.
+     * Um comando só (upsert), seguro com escritas simultâneas no mesmo bucket ainda inexistente.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Long usuarioId, Long categoriaId, LocalDate data, Transacao.TipoTransacao tipo,
+                          BigDecimal valor, long quantidade) {
+        resumoMensalRepository.somarOuCriar(usuarioId, data.getYear(), data.getMonthValue(), categoriaId, tipo,
+                valor, quantidade);
+    }
+
+    /**
+     * Aplica deltas já somados por bucket (escritas em lote): um upsert por bucket.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Long usuarioId, DeltasResumo deltas) {
+        deltas.porBucket().forEach((b, d) -> {
+            if (d.valor.signum() != 0 || d.quantidade != 0) {
+                registrar(usuarioId, b.categoriaId(), b.mes().atDay(1), b.tipo(), d.valor, d.quantidade);
+            }
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void excluirPorCategoria(Long categoriaId) {
+        resumoMensalRepository.excluirPorCategoria(categoriaId);
+    }
+
+    /**
+     * Recalcula os resumos a partir das transações e compara com o que está gravado.
+     * Com {@code corrigir = true} trava o usuário antes de recalcular, apaga os resumos dele e grava os valores
+     * recalculados: uma escrita que chegue no meio espera a correção terminar e aplica o delta dela por cima,
+     * em vez de ter o delta sobrescrito.
+     */
+    @Transactional
+    public VerificacaoResumoResponse verificar(Long usuarioId, boolean corrigir) {
+        if (corrigir) {
+            travarUsuario(usuarioId);
+        }
+        List<TotalMensalPorCategoria> calculados = relatorioRepository.totaisMensaisPorCategoria(usuarioId);
+        List<TotalMensalPorCategoria> gravados = resumoMensalRepository.listarPorUsuario(usuarioId);
+
+        Map<Bucket, TotalMensalPorCategoria> porBucket = new HashMap<>();
+        for (TotalMensalPorCategoria g : gravados) {
+            porBucket.put(Bucket.de(g), g);
+        }
+        Set<Bucket> vistos = new HashSet<>();
+        List<VerificacaoResumoResponse.Divergencia> divergencias = new ArrayList<>();
+        for (TotalMensalPorCategoria c : calculados) {
+            Bucket b = Bucket.de(c);
+            vistos.add(b);
+            TotalMensalPorCategoria g = porBucket.get(b);
+            BigDecimal totalGravado = g != null ? g.total() : BigDecimal.ZERO;
+            long qtdGravada = g != null ? g.quantidade() : 0;
+            if (totalGravado.compareTo(c.total()) != 0 || qtdGravada != c.quantidade()) {
+                divergencias.add(divergencia(b, totalGravado, qtdGravada, c.total(), c.quantidade()));
+            }
+        }
+        for (TotalMensalPorCategoria g : gravados) {
+            Bucket b = Bucket.de(g);
+            if (!vistos.contains(b) && (g.quantidade() != 0 || g.total().signum() != 0)) {
+                divergencias.add(divergencia(b, g.total(), g.quantidade(), BigDecimal.ZERO, 0));
+            }
+        }
+
+        boolean corrigido = false;
+        if (corrigir && (!divergencias.isEmpty() || gravados.size() != calculados.size())) {
+            resumoMensalRepository.excluirPorUsuario(usuarioId);
+            List<ResumoMensal> novos = new ArrayList<>(calculados.size());
+            for (TotalMensalPorCategoria c : calculados) {
+                novos.add(novoBucket(usuarioId, c.ano(), c.mes(), c.categoriaId(), c.tipo(), c.total(), c.quantidade()));
+            }
+            resumoMensalRepository.saveAll(novos);
+            corrigido = true;
+            eventPublisher.publishEvent(DadosAlteradosEvent.todosOsMeses(usuarioId));
+        }
+
+        return VerificacaoResumoResponse.builder()
+                .usuarioId(usuarioId)
+                .bucketsVerificados(calculados.size())
+                .corrigido(corrigido)
+                .divergencias(divergencias)
+                .build();
+    }
+
+    private ResumoMensal novoBucket(Long usuarioId, int ano, int mes, Long categoriaId,
+                                    Transacao.TipoTransacao tipo, BigDecimal valor, long quantidade) {
+        return ResumoMensal.builder()
+                .usuario(usuarioRepository.getReferenceById(usuarioId))
+                .categoria(categoriaRepository.getReferenceById(categoriaId))
+                .ano(ano)
+                .mes(mes)
+                .tipo(tipo)
+                .total(valor)
+                .quantidade(quantidade)
+                .build();
+    }
+
+    private VerificacaoResumoResponse.Divergencia divergencia(Bucket b, BigDecimal totalGravado, long qtdGravada,
+                                                              BigDecimal totalCalculado, long qtdCalculada) {
+        return VerificacaoResumoResponse.Divergencia.builder()
+                .ano(b.ano())
+                .mes(b.mes())
+                .categoriaId(b.categoriaId())
+                .tipo(b.tipo().name())
+                .totalResumo(totalGravado)
+                .totalCalculado(totalCalculado)
+                .quantidadeResumo(qtdGravada)
+                .quantidadeCalculada(qtdCalculada)
+                .build();
+    }
+
+    private record Bucket(int ano, int mes, Long categoriaId, Transacao.TipoTransacao tipo) {
+        static Bucket de(TotalMensalPorCategoria t) {
+            return new Bucket(t.ano(), t.mes(), t.categoriaId(), t.tipo());
+        }
+    }
+}
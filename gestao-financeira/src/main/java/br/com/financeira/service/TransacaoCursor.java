@@ -0,0 +1,27 @@
+package br.com.financeira.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Posição da última transação devolvida em uma página (ordenação data DESC, id DESC).
+ * Vai para o cliente como token opaco em Base64 URL-safe; o cliente só devolve o valor recebido.
+ */
+record TransacaoCursor(LocalDate data, Long id) {
+
+    String encode() {
+        String raw = data + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TransacaoCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new TransacaoCursor(LocalDate.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido");
+        }
+    }
+}
@@ -1,18 +1,35 @@
 package br.com.financeira.service;
 
+import br.com.financeira.dto.OperacaoLoteResponse;
+import br.com.financeira.dto.TransacaoFiltro;
+import br.com.financeira.dto.TransacaoLoteResponse;
+import br.com.financeira.dto.TransacaoPaginaResponse;
 import br.com.financeira.dto.TransacaoRequest;
 import br.com.financeira.dto.TransacaoResponse;
-import br.com.financeira.entity.Categoria;
 import br.com.financeira.entity.Transacao;
 import br.com.financeira.entity.Usuario;
 import br.com.financeira.repository.CategoriaRepository;
+import br.com.financeira.repository.DescricaoTransacao;
+import br.com.financeira.repository.TotalSelecionado;
 import br.com.financeira.repository.TransacaoRepository;
 import br.com.financeira.repository.UsuarioRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,65 +39,356 @@ public class TransacaoService {
     private final TransacaoRepository transacaoRepository;
     private final UsuarioRepository usuarioRepository;
     private final CategoriaRepository categoriaRepository;
+    private final ResumoMensalService resumoMensalService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final IndiceDescricoes indiceDescricoes;
+    private final CategoriasDoUsuario categoriasDoUsuario;
+
+    @Value("${transacoes.pagina.tamanho-padrao:50}")
+    private int tamanhoPadraoPagina;
+
+    @Value("${transacoes.pagina.tamanho-maximo:500}")
+    private int tamanhoMaximoPagina;
+
+    @Value("${transacoes.lote.tamanho-maximo:5000}")
+    private int tamanhoMaximoLote;
 
     @Transactional(readOnly = true)
     public List<TransacaoResponse> listarPorUsuario(Long usuarioId) {
-        return transacaoRepository.findByUsuarioIdOrderByDataDesc(usuarioId)
-                .stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return transacaoRepository.listarPorUsuario(usuarioId);
     }
 
+    /**
+     * Página por cursor, opcionalmente filtrada (tipo, categoria, faixa de valor, trecho da descrição, período).
+     * Sem filtro usa as consultas fixas; com filtro a consulta é montada só com os critérios informados.
+     */
+    @Transactional(readOnly = true)
+    public TransacaoPaginaResponse listarPagina(Long usuarioId, TransacaoFiltro filtro, String cursor, Integer tamanho) {
+        int tam = tamanho != null ? tamanho : tamanhoPadraoPagina;
+        if (tam < 1 || tam > tamanhoMaximoPagina) {
+            throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + tamanhoMaximoPagina);
+        }
+        TransacaoCursor pos = cursor == null || cursor.isBlank() ? null : TransacaoCursor.decode(cursor);
+        // Busca um item a mais só para saber se existe próxima página
+        List<TransacaoResponse> lidas;
+        if (filtro == null || filtro.semCriterios()) {
+            PageRequest limite = PageRequest.of(0, tam + 1);
+            lidas = pos == null
+                    ? transacaoRepository.primeiraPagina(usuarioId, limite)
+                    : transacaoRepository.paginaApos(usuarioId, pos.data(), pos.id(), limite);
+        } else {
+            validarFaixas(filtro);
+            lidas = transacaoRepository.buscar(usuarioId, filtro,
+                    pos != null ? pos.data() : null, pos != null ? pos.id() : null, tam + 1);
+        }
+        boolean temMais = lidas.size() > tam;
+        List<TransacaoResponse> itens = temMais ? lidas.subList(0, tam) : lidas;
+        String proximo = null;
+        if (temMais) {
+            TransacaoResponse ultima = itens.get(itens.size() - 1);
+            proximo = new TransacaoCursor(ultima.getData(), ultima.getId()).encode();
+        }
+        return TransacaoPaginaResponse.builder()
+                .itens(itens)
+                .tamanho(itens.size())
+                .temMais(temMais)
+                .proximoCursor(proximo)
+                .build();
+    }
+
+    /**
+     * Usuário e categoria entram como referência (sem SELECT): o usuário vem do token e a posse da categoria é
+     * conferida em {@link CategoriasDoUsuario}, que também dá o nome para a resposta. Sobra o INSERT.
+     */
     @Transactional
     public TransacaoResponse criar(Long usuarioId, TransacaoRequest request) {
-        Usuario usuario = usuarioRepository.findById(usuarioId)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
-        Categoria categoria = categoriaRepository.findById(request.getCategoriaId())
-                .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada"));
-        if (!categoria.getUsuario().getId().equals(usuarioId)) {
-            throw new IllegalArgumentException("Categoria não pertence ao usuário");
-        }
+        resumoMensalService.travarUsuario(usuarioId);
+        String categoriaNome = nomeDaCategoria(usuarioId, request.getCategoriaId());
         Transacao t = Transacao.builder()
                 .data(request.getData())
                 .valor(request.getValor())
                 .tipo(request.getTipo())
                 .descricao(request.getDescricao())
-                .categoria(categoria)
-                .usuario(usuario)
+                .categoria(categoriaRepository.getReferenceById(request.getCategoriaId()))
+                .usuario(usuarioRepository.getReferenceById(usuarioId))
                 .build();
         t = transacaoRepository.save(t);
-        return toResponse(t);
+        resumoMensalService.registrar(usuarioId, request.getCategoriaId(), t.getData(), t.getTipo(), t.getValor(), 1);
+        eventPublisher.publishEvent(DadosAlteradosEvent.meses(usuarioId, YearMonth.from(t.getData())));
+        eventPublisher.publishEvent(DescricoesAlteradasEvent.gravadas(usuarioId, List.of(descricao(t))));
+        return toResponse(t, categoriaNome);
+    }
+
+    /**
+     * Cria várias transações de uma vez. Cada item é validado isoladamente e os rejeitados voltam com o erro;
+     * os demais são gravados juntos. A posse das categorias é conferida em uma consulta só, o usuário entra
+     * como referência (sem SELECT), os INSERTs saem em lotes JDBC ({@code hibernate.jdbc.batch_size}, possível
+     * porque o id vem de sequence) e o resumo mensal recebe um upsert por bucket, não por linha.
+     */
+    @Transactional
+    public TransacaoLoteResponse criarLote(Long usuarioId, List<TransacaoRequest> requests) {
+        if (requests.size() > tamanhoMaximoLote) {
+            throw new IllegalArgumentException("Lote deve ter no máximo " + tamanhoMaximoLote + " transações");
+        }
+        String[] erros = new String[requests.size()];
+        Set<Long> categoriaIds = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TransacaoRequest r = requests.get(i);
+            if (r == null) {
+                erros[i] = "Item vazio";
+                continue;
+            }
+            Set<ConstraintViolation<TransacaoRequest>> violacoes = validator.validate(r);
+            if (!violacoes.isEmpty()) {
+                erros[i] = violacoes.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+            } else {
+                categoriaIds.add(r.getCategoriaId());
+            }
+        }
+        Map<Long, String> categorias = categoriaIds.isEmpty() ? Map.of() : categoriasDoUsuario.obter(usuarioId);
+
+        resumoMensalService.travarUsuario(usuarioId);
+        Usuario usuario = usuarioRepository.getReferenceById(usuarioId);
+        List<Transacao> novas = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        DeltasResumo deltas = new DeltasResumo();
+        for (int i = 0; i < requests.size(); i++) {
+            if (erros[i] != null) {
+                continue;
+            }
+            TransacaoRequest r = requests.get(i);
+            if (!categorias.containsKey(r.getCategoriaId())) {
+                erros[i] = "Categoria não encontrada";
+                continue;
+            }
+            novas.add(Transacao.builder()
+                    .data(r.getData())
+                    .valor(r.getValor())
+                    .tipo(r.getTipo())
+                    .descricao(r.getDescricao())
+                    .categoria(categoriaRepository.getReferenceById(r.getCategoriaId()))
+                    .usuario(usuario)
+                    .build());
+            indices.add(i);
+            deltas.adicionar(r.getCategoriaId(), YearMonth.from(r.getData()), r.getTipo(), r.getValor(), 1);
+        }
+        transacaoRepository.saveAll(novas);
+        if (!deltas.vazio()) {
+            resumoMensalService.registrar(usuarioId, deltas);
+            eventPublisher.publishEvent(new DadosAlteradosEvent(usuarioId, deltas.meses()));
+            eventPublisher.publishEvent(DescricoesAlteradasEvent.gravadas(usuarioId,
+                    novas.stream().map(this::descricao).collect(Collectors.toList())));
+        }
+
+        Long[] ids = new Long[requests.size()];
+        for (int k = 0; k < novas.size(); k++) {
+            ids[indices.get(k)] = novas.get(k).getId();
+        }
+        List<TransacaoLoteResponse.Item> itens = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            itens.add(TransacaoLoteResponse.Item.builder().indice(i).id(ids[i]).erro(erros[i]).build());
+        }
+        return TransacaoLoteResponse.builder()
+                .total(requests.size())
+                .criadas(novas.size())
+                .rejeitadas(requests.size() - novas.size())
+                .itens(itens)
+                .build();
+    }
+
+    /**
+     * Move para {@code categoriaId} todas as transações do filtro com um único UPDATE. Os deltas do resumo saem
+     * de uma consulta agregada sobre o mesmo filtro, feita com o usuário travado
+     * ({@link ResumoMensalService#travarUsuario}): nenhuma outra escrita do usuário entra entre as duas, então
+     * o resumo desconta exatamente as linhas alteradas. Memória e comandos não crescem com a seleção, só com
+     * o número de buckets (categoria, mês, tipo) afetados.
+     */
+    @Transactional
+    public OperacaoLoteResponse recategorizar(Long usuarioId, TransacaoFiltro filtro, Long categoriaId) {
+        validarFiltro(filtro);
+        nomeDaCategoria(usuarioId, categoriaId);
+        resumoMensalService.travarUsuario(usuarioId);
+        List<TotalSelecionado> totais = transacaoRepository.totaisDoFiltro(usuarioId, filtro, categoriaId);
+        if (totais.isEmpty()) {
+            return OperacaoLoteResponse.builder().afetadas(0).build();
+        }
+        DeltasResumo deltas = new DeltasResumo();
+        long selecionadas = 0;
+        for (TotalSelecionado t : totais) {
+            YearMonth mes = YearMonth.of(t.ano(), t.mes());
+            deltas.adicionar(t.categoriaId(), mes, t.tipo(), t.total().negate(), -t.quantidade());
+            deltas.adicionar(categoriaId, mes, t.tipo(), t.total(), t.quantidade());
+            selecionadas += t.quantidade();
+        }
+        int afetadas = transacaoRepository.recategorizar(usuarioId, filtro, categoriaId);
+        conferirAfetadas(afetadas, selecionadas);
+        resumoMensalService.registrar(usuarioId, deltas);
+        eventPublisher.publishEvent(new DadosAlteradosEvent(usuarioId, deltas.meses()));
+        return OperacaoLoteResponse.builder().afetadas(afetadas).build();
+    }
+
+    /**
+     * Exclui todas as transações do filtro com um único DELETE, descontando do resumo os totais agregados do mesmo
+     * filtro (ver {@link #recategorizar}). O índice de descrições do usuário é refeito, como na exclusão de categoria.
+     */
+    @Transactional
+    public OperacaoLoteResponse excluirLote(Long usuarioId, TransacaoFiltro filtro) {
+        validarFiltro(filtro);
+        resumoMensalService.travarUsuario(usuarioId);
+        List<TotalSelecionado> totais = transacaoRepository.totaisDoFiltro(usuarioId, filtro, null);
+        if (totais.isEmpty()) {
+            return OperacaoLoteResponse.builder().afetadas(0).build();
+        }
+        DeltasResumo deltas = new DeltasResumo();
+        long selecionadas = 0;
+        for (TotalSelecionado t : totais) {
+            deltas.adicionar(t.categoriaId(), YearMonth.of(t.ano(), t.mes()), t.tipo(), t.total().negate(), -t.quantidade());
+            selecionadas += t.quantidade();
+        }
+        int afetadas = transacaoRepository.excluir(usuarioId, filtro);
+        conferirAfetadas(afetadas, selecionadas);
+        resumoMensalService.registrar(usuarioId, deltas);
+        eventPublisher.publishEvent(new DadosAlteradosEvent(usuarioId, deltas.meses()));
+        eventPublisher.publishEvent(DescricoesAlteradasEvent.reindexar(usuarioId));
+        return OperacaoLoteResponse.builder().afetadas(afetadas).build();
+    }
+
+    /** Com o usuário travado os números batem; se não baterem, desfaz tudo em vez de gravar um resumo errado. */
+    private static void conferirAfetadas(int afetadas, long selecionadas) {
+        if (afetadas != selecionadas) {
+            throw new IllegalStateException("Operação em lote alterou " + afetadas + " de " + selecionadas
+                    + " transações selecionadas");
+        }
+    }
+
+    private void validarFiltro(TransacaoFiltro filtro) {
+        if (filtro.semCriterios()) {
+            throw new IllegalArgumentException("Informe ids ou ao menos um critério no filtro");
+        }
+        validarFaixas(filtro);
+        if (filtro.getIds() != null && filtro.getIds().size() > tamanhoMaximoLote) {
+            throw new IllegalArgumentException("Lote deve ter no máximo " + tamanhoMaximoLote + " ids");
+        }
+    }
+
+    private void validarFaixas(TransacaoFiltro filtro) {
+        if (filtro.getDataInicio() != null && filtro.getDataFim() != null
+                && filtro.getDataInicio().isAfter(filtro.getDataFim())) {
+            throw new IllegalArgumentException("dataInicio deve ser anterior ou igual a dataFim");
+        }
+        if (filtro.getValorMin() != null && filtro.getValorMax() != null
+                && filtro.getValorMin().compareTo(filtro.getValorMax()) > 0) {
+            throw new IllegalArgumentException("valorMin deve ser menor ou igual a valorMax");
+        }
     }
 
     @Transactional
     public TransacaoResponse atualizar(Long usuarioId, Long transacaoId, TransacaoRequest request) {
+        resumoMensalService.travarUsuario(usuarioId);
         Transacao t = transacaoRepository.findById(transacaoId)
                 .orElseThrow(() -> new IllegalArgumentException("Transação não encontrada"));
         if (!t.getUsuario().getId().equals(usuarioId)) {
             throw new IllegalArgumentException("Transação não pertence ao usuário");
         }
-        Categoria categoria = categoriaRepository.findById(request.getCategoriaId())
-                .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada"));
-        if (!categoria.getUsuario().getId().equals(usuarioId)) {
-            throw new IllegalArgumentException("Categoria não pertence ao usuário");
-        }
+        Long categoriaId = request.getCategoriaId();
+        String categoriaNome = nomeDaCategoria(usuarioId, categoriaId);
+        Long categoriaAnteriorId = t.getCategoria().getId();
+        LocalDate dataAnterior = t.getData();
+        Transacao.TipoTransacao tipoAnterior = t.getTipo();
+        BigDecimal valorAnterior = t.getValor();
         t.setData(request.getData());
         t.setValor(request.getValor());
         t.setTipo(request.getTipo());
         t.setDescricao(request.getDescricao());
-        t.setCategoria(categoria);
+        if (!categoriaAnteriorId.equals(categoriaId)) {
+            t.setCategoria(categoriaRepository.getReferenceById(categoriaId));
+        }
         t = transacaoRepository.save(t);
-        return toResponse(t);
+        if (categoriaAnteriorId.equals(categoriaId) && tipoAnterior == t.getTipo()
+                && YearMonth.from(dataAnterior).equals(YearMonth.from(t.getData()))) {
+            resumoMensalService.registrar(usuarioId, categoriaId, t.getData(), t.getTipo(),
+                    t.getValor().subtract(valorAnterior), 0);
+        } else {
+            resumoMensalService.registrar(usuarioId, categoriaAnteriorId, dataAnterior, tipoAnterior,
+                    valorAnterior.negate(), -1);
+            resumoMensalService.registrar(usuarioId, categoriaId, t.getData(), t.getTipo(), t.getValor(), 1);
+        }
+        YearMonth mesAnterior = YearMonth.from(dataAnterior);
+        YearMonth mesNovo = YearMonth.from(t.getData());
+        eventPublisher.publishEvent(mesAnterior.equals(mesNovo)
+                ? DadosAlteradosEvent.meses(usuarioId, mesNovo)
+                : DadosAlteradosEvent.meses(usuarioId, mesAnterior, mesNovo));
+        eventPublisher.publishEvent(DescricoesAlteradasEvent.gravadas(usuarioId, List.of(descricao(t))));
+        return toResponse(t, categoriaNome);
     }
 
     @Transactional
     public void excluir(Long usuarioId, Long transacaoId) {
+        resumoMensalService.travarUsuario(usuarioId);
         Transacao t = transacaoRepository.findById(transacaoId)
                 .orElseThrow(() -> new IllegalArgumentException("Transação não encontrada"));
         if (!t.getUsuario().getId().equals(usuarioId)) {
             throw new IllegalArgumentException("Transação não pertence ao usuário");
         }
+        resumoMensalService.registrar(usuarioId, t.getCategoria().getId(), t.getData(), t.getTipo(),
+                t.getValor().negate(), -1);
         transacaoRepository.delete(t);
+        eventPublisher.publishEvent(DadosAlteradosEvent.meses(usuarioId, YearMonth.from(t.getData())));
+        eventPublisher.publishEvent(DescricoesAlteradasEvent.removidas(usuarioId, Set.of(t.getId())));
+    }
+
+    /**
+     * Transações cuja descrição contém todas as palavras da consulta (sem acento/maiúsculas, cada palavra
+     * como prefixo), mais recentes primeiro. A busca é feita no {@link IndiceDescricoes}; o banco só é lido
+     * para trazer as linhas encontradas pelo id. Consultas que o índice não atende (palavra de uma letra, só
+     * palavras ignoradas) usam o trecho de descrição com LIKE, como o filtro de {@code /pagina}.
+     */
+    @Transactional(readOnly = true)
+    public List<TransacaoResponse> buscarPorDescricao(Long usuarioId, String consulta, Integer limite) {
+        int lim = limiteBusca(limite);
+        if (consulta == null || consulta.isBlank()) {
+            return List.of();
+        }
+        if (!indiceDescricoes.atende(consulta)) {
+            TransacaoFiltro filtro = new TransacaoFiltro();
+            filtro.setDescricao(consulta);
+            return transacaoRepository.buscar(usuarioId, filtro, null, null, lim);
+        }
+        List<Long> ids = indiceDescricoes.buscar(usuarioId, consulta, lim,
+                () -> transacaoRepository.streamDescricoes(usuarioId));
+        return ids.isEmpty() ? List.of() : transacaoRepository.listarPorIds(usuarioId, ids);
+    }
+
+    /** Palavras já usadas nas descrições do usuário que começam com {@code prefixo} (autocompletar). */
+    @Transactional(readOnly = true)
+    public List<String> sugerirPalavras(Long usuarioId, String prefixo, Integer limite) {
+        return indiceDescricoes.sugerir(usuarioId, prefixo, limiteBusca(limite),
+                () -> transacaoRepository.streamDescricoes(usuarioId));
+    }
+
+    private int limiteBusca(Integer limite) {
+        int lim = limite != null ? limite : tamanhoPadraoPagina;
+        if (lim < 1 || lim > tamanhoMaximoPagina) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + tamanhoMaximoPagina);
+        }
+        return lim;
+    }
+
+    /** Nome da categoria do usuário, pelo cache; falha se ela não existe ou é de outro usuário. */
+    private String nomeDaCategoria(Long usuarioId, Long categoriaId) {
+        String nome = categoriasDoUsuario.nome(usuarioId, categoriaId);
+        if (nome == null) {
+            throw new IllegalArgumentException("Categoria não encontrada");
+        }
+        return nome;
+    }
+
+    private DescricaoTransacao descricao(Transacao t) {
+        return new DescricaoTransacao(t.getId(), t.getData(), t.getDescricao());
     }
 
     public TransacaoResponse toResponsePublic(Transacao t) {
@@ -88,6 +396,10 @@ public class TransacaoService {
     }
 
     private TransacaoResponse toResponse(Transacao t) {
+        return toResponse(t, t.getCategoria().getNome());
+    }
+
+    private TransacaoResponse toResponse(Transacao t, String categoriaNome) {
         return TransacaoResponse.builder()
                 .id(t.getId())
                 .data(t.getData())
@@ -95,7 +407,7 @@ public class TransacaoService {
                 .tipo(t.getTipo())
                 .descricao(t.getDescricao())
                 .categoriaId(t.getCategoria().getId())
-                .categoriaNome(t.getCategoria().getNome())
+                .categoriaNome(categoriaNome)
                 .build();
     }
 }
@@ -0,0 +1,41 @@
+package br.com.financeira.service;
+
+import br.com.financeira.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Versão dos dados de cada usuário ({@code usuarios.versao_dados}), base dos ETags das leituras: se a versão não
+ * mudou, o cliente já tem os dados atuais e a resposta pode ser 304 sem montar o corpo.
+ * <p>
+ * A versão é incrementada antes do commit de toda escrita em transações ou categorias, na mesma transação e com a
+ * linha do usuário travada, então vale em todas as instâncias e depois de reiniciar. Custa uma consulta pela
+ * chave primária por GET condicional.
+ */
+@Component
+@RequiredArgsConstructor
+public class VersaoDadosService {
+
+    private final UsuarioRepository usuarioRepository;
+
+    /**
+     * ETag forte para um recurso do usuário. {@code recurso} deve identificar a URL e os parâmetros que
+     * mudam o corpo (ex.: "relatorio-mensal-2026-2"). Tem que ser calculado antes de ler os dados.
+     */
+    public String etag(Long usuarioId, String recurso) {
+        long versao = usuarioRepository.buscarVersaoDados(usuarioId).orElse(0L);
+        return "\"" + versao + "-" + recurso + "\"";
+    }
+
+    /**
+     * Roda dentro da transação da escrita, logo antes do commit. Se a conta foi removida na mesma transação
+     * (exclusão da conta), não há versão para incrementar.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void aoAlterarDados(DadosAlteradosEvent evento) {
+        usuarioRepository.travar(evento.usuarioId()).ifPresent(u ->
+                u.setVersaoDados((u.getVersaoDados() != null ? u.getVersaoDados() : 0L) + 1));
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.financeira;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * PostgreSQL de verdade (Docker) para os testes que dependem do banco de produção: sequence, upsert,
+ * lotes JDBC. Os testes que importam esta configuração usam {@code @Testcontainers(disabledWithoutDocker = true)}
+ * e são pulados onde não há Docker.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class PostgresTestcontainer {
+
+    @Bean
+    @ServiceConnection
+    PostgreSQLContainer<?> postgres() {
+        // Mesmo parâmetro da URL de produção: o driver junta os INSERTs do lote em um só comando
+        return new PostgreSQLContainer<>("postgres:16-alpine")
+                .withUrlParam("reWriteBatchedInserts", "true");
+    }
+}
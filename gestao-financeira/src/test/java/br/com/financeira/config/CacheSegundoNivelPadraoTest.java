@@ -0,0 +1,29 @@
+package br.com.financeira.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sem o perfil {@code cache-l2} o cache de 2º nível fica desligado, mesmo com hibernate-jcache no classpath
+ * e {@code @Cacheable} em Categoria e Usuario.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class CacheSegundoNivelPadraoTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void perfilPadraoNaoTemRegioesDeCache() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        assertThat(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()).isFalse();
+        assertThat(sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()).isFalse();
+        assertThat(sessionFactory.getStatistics().getSecondLevelCacheRegionNames()).isEmpty();
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.financeira.config;
+
+import br.com.financeira.PostgresTestcontainer;
+import br.com.financeira.dto.TransacaoRequest;
+import br.com.financeira.dto.TransacaoResponse;
+import br.com.financeira.entity.Categoria;
+import br.com.financeira.entity.Transacao;
+import br.com.financeira.entity.Usuario;
+import br.com.financeira.repository.CategoriaRepository;
+import br.com.financeira.repository.UsuarioRepository;
+import br.com.financeira.service.TransacaoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Banco que veio do id identity: transações com ids altos e a sequence recém-criada em 1.
+ * Contexto próprio: o Hibernate não pode ter um bloco de ids da sequence já reservado em memória.
+ */
+@SpringBootTest
+@Import(PostgresTestcontainer.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+@Testcontainers(disabledWithoutDocker = true)
+class SequenciaTransacoesTest {
+
+    @Autowired
+    private SequenciaTransacoes sequenciaTransacoes;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private TransacaoService transacaoService;
+
+    @Test
+    void adiantaSequenceAtrasadaUmaVezSo() {
+        Usuario usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Maria")
+                .email("maria.sequence@teste.com")
+                .senha("senha-secreta")
+                .build());
+        Categoria categoria = categoriaRepository.save(Categoria.builder().nome("Mercado").usuario(usuario).build());
+        jdbcTemplate.update("INSERT INTO transacoes (id, data, valor, tipo, categoria_id, usuario_id, criado_em) "
+                        + "VALUES (10000, DATE '2024-01-10', 10.00, 'SAIDA', ?, ?, now())",
+                categoria.getId(), usuario.getId());
+        jdbcTemplate.queryForObject("SELECT setval('transacoes_seq', 1)", Long.class);
+
+        assertThat(sequenciaTransacoes.ajustar()).isEqualTo(10000L + SequenciaTransacoes.BLOCO);
+        assertThat(sequenciaTransacoes.ajustar()).isNull();
+
+        TransacaoRequest request = new TransacaoRequest();
+        request.setData(LocalDate.of(2024, 1, 11));
+        request.setValor(new BigDecimal("20.00"));
+        request.setTipo(Transacao.TipoTransacao.SAIDA);
+        request.setCategoriaId(categoria.getId());
+        TransacaoResponse criada = transacaoService.criar(usuario.getId(), request);
+
+        assertThat(criada.getId()).isGreaterThan(10000L);
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.financeira.repository;
+
+import br.com.financeira.dto.TransacaoResponse;
+import br.com.financeira.entity.Categoria;
+import br.com.financeira.entity.Transacao;
+import br.com.financeira.entity.Usuario;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class TransacaoRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void popular() {
+        usuario = entityManager.persist(Usuario.builder()
+                .nome("Maria")
+                .email("maria@teste.com")
+                .senha("senha-secreta")
+                .build());
+        Usuario outro = entityManager.persist(Usuario.builder()
+                .nome("João")
+                .email("joao@teste.com")
+                .senha("senha-secreta")
+                .build());
+        List<Categoria> categorias = List.of(
+                entityManager.persist(Categoria.builder().nome("Mercado").usuario(usuario).build()),
+                entityManager.persist(Categoria.builder().nome("Salário").usuario(usuario).build()),
+                entityManager.persist(Categoria.builder().nome("Lazer").usuario(usuario).build()));
+        for (int i = 0; i < 30; i++) {
+            entityManager.persist(Transacao.builder()
+                    .data(LocalDate.of(2024, 1, 1).plusDays(i))
+                    .valor(new BigDecimal("10.00").add(BigDecimal.valueOf(i)))
+                    .tipo(i % 3 == 1 ? Transacao.TipoTransacao.ENTRADA : Transacao.TipoTransacao.SAIDA)
+                    .descricao("Transação " + i)
+                    .categoria(categorias.get(i % categorias.size()))
+                    .usuario(usuario)
+                    .build());
+        }
+        Categoria deOutro = entityManager.persist(Categoria.builder().nome("Mercado").usuario(outro).build());
+        entityManager.persist(Transacao.builder()
+                .data(LocalDate.of(2024, 1, 15))
+                .valor(new BigDecimal("99.00"))
+                .tipo(Transacao.TipoTransacao.SAIDA)
+                .categoria(deOutro)
+                .usuario(outro)
+                .build());
+        // Grava e esvazia o contexto: a listagem não pode se apoiar em entidades já carregadas
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listarPorUsuarioUsaUmaUnicaConsulta() {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        List<TransacaoResponse> transacoes = transacaoRepository.listarPorUsuario(usuario.getId());
+
+        assertThat(transacoes).hasSize(30);
+        assertThat(transacoes).allSatisfy(t -> assertThat(t.getCategoriaNome()).isNotBlank());
+        assertThat(transacoes.get(0).getData()).isEqualTo(LocalDate.of(2024, 1, 30));
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.financeira.service;
+
+import br.com.financeira.PostgresTestcontainer;
+import br.com.financeira.dto.ImportacaoResponse;
+import br.com.financeira.dto.TransacaoResponse;
+import br.com.financeira.entity.Categoria;
+import br.com.financeira.entity.Usuario;
+import br.com.financeira.exception.LimiteExcedidoException;
+import br.com.financeira.repository.CategoriaRepository;
+import br.com.financeira.repository.TransacaoRepository;
+import br.com.financeira.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reimportar o mesmo extrato não duplica transações: a segunda importação conta todas as linhas como
+ * duplicadas. Duas linhas iguais no mesmo arquivo (ocorrências 1 e 2) são transações diferentes e entram as duas.
+ */
+@SpringBootTest
+@Import(PostgresTestcontainer.class)
+@Testcontainers(disabledWithoutDocker = true)
+class ImportacaoDeduplicacaoTest {
+
+    private static final String EXTRATO = """
+            data;descricao;valor
+            05/03/2024;Padaria;-12,50
+            05/03/2024;Padaria;-12,50
+            06/03/2024;Salário;5000,00
+            07/03/2024;Linha inválida;dez
+            """;
+
+    @Autowired
+    private ImportacaoJobService importacaoJobService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Test
+    void mesmoArquivoImportadoDuasVezesNaoDuplica() throws Exception {
+        Usuario usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Maria")
+                .email("maria.importacao@teste.com")
+                .senha("senha-secreta")
+                .build());
+        Long categoriaId = categoriaRepository.save(Categoria.builder().nome("Geral").usuario(usuario).build()).getId();
+
+        ImportacaoResponse primeira = importarEEsperar(usuario.getId(), categoriaId);
+        assertThat(primeira.getStatus()).isEqualTo(ImportacaoResponse.Status.CONCLUIDO);
+        assertThat(primeira.getImportadas()).isEqualTo(3);
+        assertThat(primeira.getDuplicadas()).isZero();
+        assertThat(primeira.getRejeitadas()).isEqualTo(1);
+
+        ImportacaoResponse segunda = importarEEsperar(usuario.getId(), categoriaId);
+        assertThat(segunda.getStatus()).isEqualTo(ImportacaoResponse.Status.CONCLUIDO);
+        assertThat(segunda.getImportadas()).isZero();
+        assertThat(segunda.getDuplicadas()).isEqualTo(3);
+
+        List<TransacaoResponse> gravadas = transacaoRepository.listarPorUsuario(usuario.getId());
+        assertThat(gravadas).hasSize(3);
+        assertThat(gravadas).filteredOn(t -> "Padaria".equals(t.getDescricao())).hasSize(2)
+                .allSatisfy(t -> assertThat(t.getValor()).isEqualByComparingTo(new BigDecimal("12.50")));
+    }
+
+    private ImportacaoResponse importarEEsperar(Long usuarioId, Long categoriaId) throws Exception {
+        MockMultipartFile arquivo = new MockMultipartFile("arquivo", "extrato.csv", "text/csv",
+                EXTRATO.getBytes(StandardCharsets.UTF_8));
+        Instant limite = Instant.now().plus(Duration.ofSeconds(30));
+        String id = null;
+        while (id == null) {
+            try {
+                id = importacaoJobService.criar(usuarioId, arquivo, categoriaId, null, null).getId();
+            } catch (LimiteExcedidoException e) {
+                // A importação anterior já terminou, mas ainda não liberou a vaga do usuário
+                assertThat(Instant.now()).isBefore(limite);
+                Thread.sleep(50);
+            }
+        }
+        ImportacaoResponse status = importacaoJobService.status(usuarioId, id);
+        while (!terminou(status) && Instant.now().isBefore(limite)) {
+            Thread.sleep(50);
+            status = importacaoJobService.status(usuarioId, id);
+        }
+        return status;
+    }
+
+    private static boolean terminou(ImportacaoResponse status) {
+        return status.getStatus() == ImportacaoResponse.Status.CONCLUIDO
+                || status.getStatus() == ImportacaoResponse.Status.ERRO;
+    }
+}
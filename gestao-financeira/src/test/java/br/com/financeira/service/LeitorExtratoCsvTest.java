@@ -0,0 +1,137 @@
+package br.com.financeira.service;
+
+import br.com.financeira.entity.Transacao;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link LeitorExtratoCsv}: separadores, aspas, formatos de data e valor, charset do arquivo e linhas inválidas
+ * (que voltam com erro sem interromper a leitura).
+ */
+class LeitorExtratoCsvTest {
+
+    @Test
+    void lePontoEVirgulaComFormatosBrasileiros() throws IOException {
+        List<LinhaExtrato> linhas = ler("""
+                Data;Descrição;Valor;Tipo;Categoria
+                31/01/2024;Mercado do bairro;1.234,56;D;Mercado
+                01/02/2024;Salário;R$ 5.000,00;crédito;
+                """);
+
+        assertThat(linhas).hasSize(2);
+        LinhaExtrato mercado = linhas.get(0);
+        assertThat(mercado.numero()).isEqualTo(2);
+        assertThat(mercado.data()).isEqualTo(LocalDate.of(2024, 1, 31));
+        assertThat(mercado.valor()).isEqualByComparingTo("1234.56");
+        assertThat(mercado.tipo()).isEqualTo(Transacao.TipoTransacao.SAIDA);
+        assertThat(mercado.descricao()).isEqualTo("Mercado do bairro");
+        assertThat(mercado.categoria()).isEqualTo("Mercado");
+        assertThat(mercado.erro()).isNull();
+
+        LinhaExtrato salario = linhas.get(1);
+        assertThat(salario.valor()).isEqualByComparingTo("5000.00");
+        assertThat(salario.tipo()).isEqualTo(Transacao.TipoTransacao.ENTRADA);
+        assertThat(salario.categoria()).isEmpty();
+    }
+
+    @Test
+    void leVirgulaComAspasEValorComSinal() throws IOException {
+        List<LinhaExtrato> linhas = ler("data,historico,valor\n"
+                + "2024-03-05,\"Padaria, café e pão\",-12.50\n"
+                + "20240306,\"Loja \"\"Boa Compra\"\"\",\"(30,00)\"\n"
+                + "2024-03-07T10:15:00,Depósito,\"1,234.00\"\n");
+
+        assertThat(linhas).extracting(LinhaExtrato::erro).containsOnlyNulls();
+        assertThat(linhas).extracting(LinhaExtrato::descricao)
+                .containsExactly("Padaria, café e pão", "Loja \"Boa Compra\"", "Depósito");
+        assertThat(linhas).extracting(LinhaExtrato::data)
+                .containsExactly(LocalDate.of(2024, 3, 5), LocalDate.of(2024, 3, 6), LocalDate.of(2024, 3, 7));
+        assertThat(linhas).extracting(LinhaExtrato::valor)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("-12.50"), new BigDecimal("-30.00"), new BigDecimal("1234.00"));
+        // Sem coluna tipo o sinal do valor decide depois, na importação
+        assertThat(linhas).extracting(LinhaExtrato::tipo).containsOnlyNulls();
+    }
+
+    @Test
+    void respeitaOCharsetDoArquivoEIgnoraBom() throws IOException {
+        String csv = "\uFEFFdata;descricao;valor\n10/04/2024;Pão de açúcar;-8,90\n";
+
+        List<LinhaExtrato> latin1 = ler(csv.substring(1).getBytes(StandardCharsets.ISO_8859_1),
+                StandardCharsets.ISO_8859_1);
+        List<LinhaExtrato> utf8 = ler(csv.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+
+        assertThat(latin1).extracting(LinhaExtrato::descricao).containsExactly("Pão de açúcar");
+        assertThat(utf8).extracting(LinhaExtrato::descricao).containsExactly("Pão de açúcar");
+        assertThat(utf8.get(0).erro()).isNull();
+    }
+
+    @Test
+    void linhasInvalidasVoltamComErroEALeituraContinua() throws IOException {
+        List<LinhaExtrato> linhas = ler("""
+                data;descricao;valor;tipo
+                32/01/2024;Data impossível;10,00;D
+                05/01/2024;Sem valor;;D
+                06/01/2024;Valor errado;dez reais;D
+                07/01/2024;Tipo errado;10,00;X
+                08/01/2024;"Aspas abertas;10,00;D
+
+                09/01/2024;Válida;10,00;D
+                """);
+
+        assertThat(linhas).extracting(LinhaExtrato::numero).containsExactly(2L, 3L, 4L, 5L, 6L, 8L);
+        assertThat(linhas).extracting(LinhaExtrato::erro).containsExactly(
+                "data inválida: 32/01/2024",
+                "valor ausente",
+                "valor inválido: dez reais",
+                "tipo inválido: X",
+                "aspas não fechadas",
+                null);
+        assertThat(linhas.get(5).descricao()).isEqualTo("Válida");
+    }
+
+    @Test
+    void cabecalhoSemDataOuValorERecusado() {
+        assertThatThrownBy(() -> ler("descricao;valor\nMercado;10,00\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("data e valor");
+        assertThatThrownBy(() -> ler(""))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Arquivo CSV vazio");
+    }
+
+    private static List<LinhaExtrato> ler(String csv) throws IOException {
+        try (LeitorExtratoCsv leitor = new LeitorExtratoCsv(new StringReader(csv))) {
+            return todas(leitor);
+        }
+    }
+
+    private static List<LinhaExtrato> ler(byte[] bytes, Charset charset) throws IOException {
+        try (LeitorExtratoCsv leitor = new LeitorExtratoCsv(
+                new InputStreamReader(new ByteArrayInputStream(bytes), charset))) {
+            return todas(leitor);
+        }
+    }
+
+    private static List<LinhaExtrato> todas(LeitorExtrato leitor) throws IOException {
+        List<LinhaExtrato> linhas = new ArrayList<>();
+        LinhaExtrato linha;
+        while ((linha = leitor.proxima()) != null) {
+            linhas.add(linha);
+        }
+        return linhas;
+    }
+}
@@ -0,0 +1,135 @@
+package br.com.financeira.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link LeitorExtratoOfx}: SGML do OFX 1.x (sem tags de fechamento), XML do 2.x, entidades, charset e
+ * transações sem os campos obrigatórios.
+ */
+class LeitorExtratoOfxTest {
+
+    @Test
+    void leSgmlDoOfx1() throws IOException {
+        String ofx = """
+                OFXHEADER:100
+                DATA:OFXSGML
+                VERSION:102
+                CHARSET:1252
+
+                <OFX>
+                <BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20240131120000[-3:BRT]
+                <TRNAMT>-1234.56
+                <FITID>1
+                <MEMO>Mercado do bairro
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>CREDIT
+                <DTPOSTED>20240201
+                <TRNAMT>5000.00
+                <NAME>Salario
+                </STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1>
+                </OFX>
+                """;
+
+        List<LinhaExtrato> linhas = ler(new StringReader(ofx));
+
+        assertThat(linhas).hasSize(2);
+        assertThat(linhas).extracting(LinhaExtrato::erro).containsOnlyNulls();
+        assertThat(linhas).extracting(LinhaExtrato::numero).containsExactly(1L, 2L);
+        assertThat(linhas).extracting(LinhaExtrato::data)
+                .containsExactly(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 1));
+        assertThat(linhas).extracting(LinhaExtrato::valor)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("-1234.56"), new BigDecimal("5000.00"));
+        // MEMO tem preferência; sem MEMO vale o NAME
+        assertThat(linhas).extracting(LinhaExtrato::descricao).containsExactly("Mercado do bairro", "Salario");
+        assertThat(linhas).extracting(LinhaExtrato::tipo).containsOnlyNulls();
+    }
+
+    @Test
+    void leXmlDoOfx2ComEntidades() throws IOException {
+        String ofx = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <?OFX OFXHEADER="200" VERSION="220"?>
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <STMTTRN><DTPOSTED>20240305</DTPOSTED><TRNAMT>-12,50</TRNAMT><MEMO>P&amp;B &lt;Padaria&gt;</MEMO></STMTTRN>
+                <stmttrn><dtposted>20240306</dtposted><trnamt>30.00</trnamt><memo>  Estorno  </memo></stmttrn>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """;
+
+        List<LinhaExtrato> linhas = ler(new StringReader(ofx));
+
+        assertThat(linhas).extracting(LinhaExtrato::descricao).containsExactly("P&B <Padaria>", "Estorno");
+        assertThat(linhas).extracting(LinhaExtrato::valor)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("-12.50"), new BigDecimal("30.00"));
+    }
+
+    @Test
+    void respeitaOCharsetDoArquivo() throws IOException {
+        String ofx = "<OFX><STMTTRN><DTPOSTED>20240410<TRNAMT>-8.90<MEMO>Pão de açúcar</STMTTRN></OFX>";
+
+        List<LinhaExtrato> linhas = ler(new InputStreamReader(
+                new ByteArrayInputStream(ofx.getBytes(StandardCharsets.ISO_8859_1)), StandardCharsets.ISO_8859_1));
+
+        assertThat(linhas).extracting(LinhaExtrato::descricao).containsExactly("Pão de açúcar");
+    }
+
+    @Test
+    void transacoesIncompletasVoltamComErroEALeituraContinua() throws IOException {
+        String ofx = """
+                <OFX>
+                <STMTTRN><TRNAMT>-10.00<MEMO>Sem data</STMTTRN>
+                <STMTTRN><DTPOSTED>20240101<MEMO>Sem valor</STMTTRN>
+                <STMTTRN><DTPOSTED>ontem<TRNAMT>-10.00</STMTTRN>
+                <STMTTRN><DTPOSTED>20240102<TRNAMT>dez</STMTTRN>
+                <STMTTRN><DTPOSTED>20240103<TRNAMT>-10.00<MEMO>Válida</STMTTRN>
+                </OFX>
+                """;
+
+        List<LinhaExtrato> linhas = ler(new StringReader(ofx));
+
+        assertThat(linhas).extracting(LinhaExtrato::numero).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(linhas).extracting(LinhaExtrato::erro).containsExactly(
+                "DTPOSTED ausente",
+                "TRNAMT ausente",
+                "data inválida: ontem",
+                "valor inválido: dez",
+                null);
+        assertThat(linhas.get(4).descricao()).isEqualTo("Válida");
+    }
+
+    @Test
+    void arquivoSemTransacoesNaoTemLinhas() throws IOException {
+        assertThat(ler(new StringReader("<OFX><BANKTRANLIST></BANKTRANLIST></OFX>"))).isEmpty();
+        assertThat(ler(new StringReader(""))).isEmpty();
+    }
+
+    private static List<LinhaExtrato> ler(Reader reader) throws IOException {
+        List<LinhaExtrato> linhas = new ArrayList<>();
+        try (LeitorExtratoOfx leitor = new LeitorExtratoOfx(reader)) {
+            LinhaExtrato linha;
+            while ((linha = leitor.proxima()) != null) {
+                linhas.add(linha);
+            }
+        }
+        return linhas;
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.financeira.service;
+
+import br.com.financeira.PostgresTestcontainer;
+import br.com.financeira.dto.TransacaoLoteResponse;
+import br.com.financeira.dto.TransacaoRequest;
+import br.com.financeira.dto.VerificacaoResumoResponse;
+import br.com.financeira.entity.Categoria;
+import br.com.financeira.entity.Transacao;
+import br.com.financeira.entity.Usuario;
+import br.com.financeira.repository.CategoriaRepository;
+import br.com.financeira.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vazão de gravação no PostgreSQL: {@code POST /api/transacoes/lote} ({@link TransacaoService#criarLote}, INSERTs
+ * em lote JDBC e um upsert por bucket do resumo) contra o mesmo volume pelo caminho de uma transação por
+ * requisição ({@link TransacaoService#criar}). Chama os serviços pelo proxy do Spring, com uma transação por
+ * chamada como nos controllers; o resultado vai para o log. No fim confere os resumos gravados pelo upsert
+ * ({@code INSERT ... ON CONFLICT}) contra os totais recalculados das transações.
+ */
+@SpringBootTest
+@Import(PostgresTestcontainer.class)
+@Testcontainers(disabledWithoutDocker = true)
+class TransacaoLoteThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TransacaoLoteThroughputTest.class);
+    private static final int TRANSACOES = 5000;
+    private static final int POR_LOTE = 500;
+    private static final int AQUECIMENTO = 500;
+
+    @Autowired
+    private TransacaoService transacaoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ResumoMensalService resumoMensalService;
+
+    @Test
+    void loteGravaMaisTransacoesPorSegundoQueUmaPorRequisicao() {
+        Usuario usuario = usuarioRepository.save(Usuario.builder()
+                .nome("Maria")
+                .email("maria.vazao@teste.com")
+                .senha("senha-secreta")
+                .build());
+        List<Long> categorias = new ArrayList<>();
+        for (String nome : List.of("Mercado", "Transporte", "Lazer", "Salário")) {
+            categorias.add(categoriaRepository.save(Categoria.builder().nome(nome).usuario(usuario).build()).getId());
+        }
+
+        // Aquecimento dos dois caminhos (JIT, pool de conexões, caches de categoria)
+        umaPorUma(usuario.getId(), transacoes(categorias, AQUECIMENTO, 0));
+        emLotes(usuario.getId(), transacoes(categorias, AQUECIMENTO, 1));
+
+        List<TransacaoRequest> individuais = transacoes(categorias, TRANSACOES, 2);
+        long inicio = System.nanoTime();
+        umaPorUma(usuario.getId(), individuais);
+        double segundosIndividual = (System.nanoTime() - inicio) / 1e9;
+
+        List<TransacaoRequest> emLote = transacoes(categorias, TRANSACOES, 3);
+        inicio = System.nanoTime();
+        emLotes(usuario.getId(), emLote);
+        double segundosLote = (System.nanoTime() - inicio) / 1e9;
+
+        double porSegundoIndividual = TRANSACOES / segundosIndividual;
+        double porSegundoLote = TRANSACOES / segundosLote;
+        log.info("Vazão no PostgreSQL com {} transações: uma por requisição {} /s ({} s), lotes de {} {} /s ({} s), {}x",
+                TRANSACOES, Math.round(porSegundoIndividual), String.format(Locale.ROOT, "%.2f", segundosIndividual),
+                POR_LOTE, Math.round(porSegundoLote), String.format(Locale.ROOT, "%.2f", segundosLote),
+                String.format(Locale.ROOT, "%.1f", porSegundoLote / porSegundoIndividual));
+        assertThat(porSegundoLote).isGreaterThan(porSegundoIndividual);
+
+        VerificacaoResumoResponse verificacao = resumoMensalService.verificar(usuario.getId(), false);
+        assertThat(verificacao.getBucketsVerificados()).isPositive();
+        assertThat(verificacao.getDivergencias()).isEmpty();
+    }
+
+    private void umaPorUma(Long usuarioId, List<TransacaoRequest> requests) {
+        for (TransacaoRequest r : requests) {
+            transacaoService.criar(usuarioId, r);
+        }
+    }
+
+    private void emLotes(Long usuarioId, List<TransacaoRequest> requests) {
+        for (int i = 0; i < requests.size(); i += POR_LOTE) {
+            List<TransacaoRequest> lote = requests.subList(i, Math.min(i + POR_LOTE, requests.size()));
+            TransacaoLoteResponse resposta = transacaoService.criarLote(usuarioId, lote);
+            assertThat(resposta.getCriadas()).isEqualTo(lote.size());
+        }
+    }
+
+    /** Datas espalhadas em dois anos e valores variados: o lote toca vários buckets do resumo, como na vida real. */
+    private static List<TransacaoRequest> transacoes(List<Long> categorias, int quantidade, int semente) {
+        List<TransacaoRequest> requests = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            TransacaoRequest r = new TransacaoRequest();
+            r.setData(LocalDate.of(2023, 1, 1).plusDays((i * 7L + semente) % 730));
+            r.setValor(BigDecimal.valueOf(100 + (i * 37L + semente) % 100_000, 2));
+            r.setTipo(i % 5 == 0 ? Transacao.TipoTransacao.ENTRADA : Transacao.TipoTransacao.SAIDA);
+            r.setDescricao("Compra " + semente + "-" + i);
+            r.setCategoriaId(categorias.get(i % categorias.size()));
+            requests.add(r);
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,274 @@
+package br.com.financeira.service;
+
+import br.com.financeira.dto.TransacaoFiltro;
+import br.com.financeira.dto.TransacaoPaginaResponse;
+import br.com.financeira.dto.TransacaoResponse;
+import br.com.financeira.entity.Categoria;
+import br.com.financeira.entity.Transacao;
+import br.com.financeira.entity.Usuario;
+import br.com.financeira.repository.CategoriaRepository;
+import br.com.financeira.repository.TransacaoRepository;
+import br.com.financeira.repository.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link TransacaoService#listarPagina} sobre uma massa de dados no H2: cada formato de filtro é percorrido
+ * página a página pelo cursor, conferindo o resultado contra o filtro aplicado em memória, uma única
+ * consulta por página e registrando a latência de cada página no log.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class TransacaoServicePaginaTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TransacaoServicePaginaTest.class);
+    private static final int TRANSACOES = 3000;
+    private static final String[] DESCRICOES = {
+            "Mercado do bairro", "Desconto 100% garantido", "Desconto 100 reais", "arquivo_final",
+            "arquivoXfinal", "Promoção!", "Promoção", "Posto 24h", null
+    };
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransacaoRepository transacaoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    private TransacaoService transacaoService;
+    private Statistics estatisticas;
+    private Usuario usuario;
+    private List<Categoria> categorias;
+    private final List<Transacao> gravadas = new ArrayList<>();
+
+    @BeforeEach
+    void popular() {
+        // listarPagina só usa o repositório de transações
+        transacaoService = new TransacaoService(transacaoRepository, usuarioRepository, categoriaRepository,
+                null, null, null, null, null);
+        ReflectionTestUtils.setField(transacaoService, "tamanhoPadraoPagina", 50);
+        ReflectionTestUtils.setField(transacaoService, "tamanhoMaximoPagina", 500);
+
+        usuario = entityManager.persist(Usuario.builder()
+                .nome("Maria")
+                .email("maria@teste.com")
+                .senha("senha-secreta")
+                .build());
+        Usuario outro = entityManager.persist(Usuario.builder()
+                .nome("João")
+                .email("joao@teste.com")
+                .senha("senha-secreta")
+                .build());
+        categorias = List.of(
+                entityManager.persist(Categoria.builder().nome("Mercado").usuario(usuario).build()),
+                entityManager.persist(Categoria.builder().nome("Salário").usuario(usuario).build()),
+                entityManager.persist(Categoria.builder().nome("Lazer").usuario(usuario).build()));
+        Categoria deOutro = entityManager.persist(Categoria.builder().nome("Mercado").usuario(outro).build());
+
+        Random random = new Random(42);
+        LocalDate inicio = LocalDate.of(2023, 1, 1);
+        for (int i = 0; i < TRANSACOES; i++) {
+            // ~730 dias para 3000 transações: várias no mesmo dia, o desempate do cursor é pelo id
+            gravadas.add(entityManager.persist(Transacao.builder()
+                    .data(inicio.plusDays(random.nextInt(730)))
+                    .valor(BigDecimal.valueOf(100 + random.nextInt(500_000), 2))
+                    .tipo(random.nextInt(4) == 0 ? Transacao.TipoTransacao.ENTRADA : Transacao.TipoTransacao.SAIDA)
+                    .descricao(DESCRICOES[random.nextInt(DESCRICOES.length)])
+                    .categoria(categorias.get(random.nextInt(categorias.size())))
+                    .usuario(usuario)
+                    .build()));
+        }
+        for (int i = 0; i < 200; i++) {
+            entityManager.persist(Transacao.builder()
+                    .data(inicio.plusDays(i))
+                    .valor(new BigDecimal("50.00"))
+                    .tipo(Transacao.TipoTransacao.SAIDA)
+                    .descricao("Desconto 100% garantido")
+                    .categoria(deOutro)
+                    .usuario(outro)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void semFiltro() {
+        conferir("sem filtro", f -> {}, t -> true, 100);
+    }
+
+    @Test
+    void periodo() {
+        LocalDate de = LocalDate.of(2023, 6, 1);
+        LocalDate ate = LocalDate.of(2023, 9, 30);
+        conferir("período", f -> {
+            f.setDataInicio(de);
+            f.setDataFim(ate);
+        }, t -> !t.getData().isBefore(de) && !t.getData().isAfter(ate), 40);
+    }
+
+    @Test
+    void categoria() {
+        Long categoriaId = categorias.get(1).getId();
+        conferir("categoria", f -> f.setCategoriaId(categoriaId),
+                t -> t.getCategoria().getId().equals(categoriaId), 100);
+    }
+
+    @Test
+    void categoriaEPeriodo() {
+        Long categoriaId = categorias.get(0).getId();
+        LocalDate de = LocalDate.of(2024, 1, 1);
+        conferir("categoria + período", f -> {
+            f.setCategoriaId(categoriaId);
+            f.setDataInicio(de);
+        }, t -> t.getCategoria().getId().equals(categoriaId) && !t.getData().isBefore(de), 50);
+    }
+
+    @Test
+    void tipoEPeriodo() {
+        LocalDate ate = LocalDate.of(2023, 12, 31);
+        conferir("tipo + período", f -> {
+            f.setTipo(Transacao.TipoTransacao.ENTRADA);
+            f.setDataFim(ate);
+        }, t -> t.getTipo() == Transacao.TipoTransacao.ENTRADA && !t.getData().isAfter(ate), 30);
+    }
+
+    @Test
+    void faixaDeValor() {
+        BigDecimal min = new BigDecimal("1000.00");
+        BigDecimal max = new BigDecimal("2500.00");
+        conferir("faixa de valor", f -> {
+            f.setValorMin(min);
+            f.setValorMax(max);
+        }, t -> t.getValor().compareTo(min) >= 0 && t.getValor().compareTo(max) <= 0, 25);
+    }
+
+    @Test
+    void ids() {
+        List<Long> ids = gravadas.stream().map(Transacao::getId).filter(id -> id % 7 == 0).collect(Collectors.toList());
+        conferir("ids", f -> f.setIds(ids), t -> ids.contains(t.getId()), 20);
+    }
+
+    @Test
+    void todosOsCriterios() {
+        Long categoriaId = categorias.get(2).getId();
+        LocalDate de = LocalDate.of(2023, 3, 1);
+        LocalDate ate = LocalDate.of(2024, 10, 31);
+        BigDecimal min = new BigDecimal("10.00");
+        conferir("todos os critérios", f -> {
+            f.setCategoriaId(categoriaId);
+            f.setTipo(Transacao.TipoTransacao.SAIDA);
+            f.setDataInicio(de);
+            f.setDataFim(ate);
+            f.setValorMin(min);
+            f.setDescricao("desconto");
+        }, t -> t.getCategoria().getId().equals(categoriaId)
+                && t.getTipo() == Transacao.TipoTransacao.SAIDA
+                && !t.getData().isBefore(de) && !t.getData().isAfter(ate)
+                && t.getValor().compareTo(min) >= 0
+                && contem(t, "desconto"), 10);
+    }
+
+    @Test
+    void descricaoSemDiferenciarMaiusculas() {
+        conferir("descrição", f -> f.setDescricao("  MERCADO "), t -> contem(t, "mercado"), 60);
+    }
+
+    @Test
+    void descricaoComPorcentagemLiteral() {
+        int encontradas = conferir("descrição com %", f -> f.setDescricao("100%"), t -> contem(t, "100%"), 50);
+        // Sem o escape, "100%" também traria "Desconto 100 reais"
+        assertThat(encontradas).isLessThan(
+                (int) gravadas.stream().filter(t -> contem(t, "desconto 100")).count());
+    }
+
+    @Test
+    void descricaoComSublinhadoLiteral() {
+        int encontradas = conferir("descrição com _", f -> f.setDescricao("o_f"), t -> contem(t, "o_f"), 50);
+        assertThat(encontradas).isPositive();
+        assertThat(gravadas.stream().filter(t -> contem(t, "arquivoxfinal")).count()).isPositive();
+    }
+
+    @Test
+    void descricaoComCaractereDeEscape() {
+        conferir("descrição com !", f -> f.setDescricao("ção!"), t -> contem(t, "ção!"), 50);
+        conferir("descrição com !%", f -> f.setDescricao("!%"), t -> contem(t, "!%"), 50);
+    }
+
+    /**
+     * Percorre todas as páginas do filtro e compara com o esperado; devolve quantas transações vieram.
+     */
+    private int conferir(String formato, Consumer<TransacaoFiltro> criterios, Predicate<Transacao> esperado, int tamanho) {
+        TransacaoFiltro filtro = new TransacaoFiltro();
+        criterios.accept(filtro);
+        List<Long> idsEsperados = gravadas.stream()
+                .filter(esperado)
+                .sorted(Comparator.comparing(Transacao::getData).thenComparing(Transacao::getId).reversed())
+                .map(Transacao::getId)
+                .collect(Collectors.toList());
+
+        List<Long> lidos = new ArrayList<>();
+        List<Long> latenciasMicros = new ArrayList<>();
+        String cursor = null;
+        do {
+            estatisticas.clear();
+            long inicio = System.nanoTime();
+            TransacaoPaginaResponse pagina = transacaoService.listarPagina(usuario.getId(), filtro, cursor, tamanho);
+            latenciasMicros.add((System.nanoTime() - inicio) / 1_000);
+
+            assertThat(estatisticas.getPrepareStatementCount())
+                    .as("consultas por página (%s)", formato)
+                    .isEqualTo(1);
+            assertThat(pagina.getItens()).hasSizeLessThanOrEqualTo(tamanho);
+            assertThat(pagina.isTemMais()).isEqualTo(pagina.getProximoCursor() != null);
+            pagina.getItens().stream().map(TransacaoResponse::getId).forEach(lidos::add);
+            cursor = pagina.getProximoCursor();
+        } while (cursor != null);
+
+        assertThat(lidos).as(formato).containsExactlyElementsOf(idsEsperados);
+        long[] ordenadas = latenciasMicros.stream().mapToLong(Long::longValue).sorted().toArray();
+        log.info("{}: {} transações em {} páginas de {}; latência por página p50={}µs máx={}µs",
+                formato, lidos.size(), ordenadas.length, tamanho,
+                ordenadas[ordenadas.length / 2], ordenadas[ordenadas.length - 1]);
+        return lidos.size();
+    }
+
+    private static boolean contem(Transacao t, String trecho) {
+        return t.getDescricao() != null
+                && t.getDescricao().toLowerCase(Locale.ROOT).contains(trecho.toLowerCase(Locale.ROOT));
+    }
+}